@@ -0,0 +1,212 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Base class for solvers that search the state space of a CSP by extending an {@link Assignment} one variable at
+ * a time. It holds the heuristics for picking the next unassigned variable (cf. {@link VariableOrdering}) and
+ * ordering the set of domain values for such a variable (cf. {@link ValueOrdering}), and it manages the listeners
+ * that observe the progress of the search as well as the {@link SearchTracer} that observes its internals.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public abstract class AbstractSolver<Type> implements Solver<Type> {
+
+    private final List<Consumer<Assignment<Type>>> listeners = new ArrayList<>();
+
+    private final VariableOrdering<Type> variableOrdering;
+
+    private final ValueOrdering<Type> valueOrdering;
+
+    private SearchTracer tracer = SearchTracer.NONE;
+
+    /**
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     */
+    protected AbstractSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering) {
+        this.variableOrdering = variableOrdering;
+        this.valueOrdering = valueOrdering;
+    }
+
+    /**
+     * Selects the next unassigned variable of the given {@link Assignment} and yields the consistent successors
+     * that result from assigning each of its domain values. The successors are computed lazily and in the order
+     * of the {@link ValueOrdering}, so the first successor follows the heuristic while every later successor is
+     * a discrepancy from it.
+     *
+     * @param assignment
+     *      represents the current state of a CSP, which must not be complete
+     * @param constraints
+     *      {@code Set} of {@link Constraint}s of the CSP
+     * @return
+     *      lazily computed {@code Stream} of consistent successors of the given {@link Assignment}
+     * @throws CancellationException
+     *      if the thread that runs the search has been interrupted
+     */
+    protected Stream<Assignment<Type>> successors(final Assignment<Type> assignment, final Set<Constraint> constraints) {
+        abortIfInterrupted();
+        final Variable<Type> unassignedVariable = variableOrdering.selectUnassignedVariable(assignment);
+        if (tracer != SearchTracer.NONE) {
+            return valueOrdering
+                    .orderedDomain(unassignedVariable, assignment, constraints)
+                    .stream()
+                    .map(value -> tracedSuccessor(assignment, unassignedVariable, value, constraints))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get);
+        }
+        return valueOrdering
+                .orderedDomain(unassignedVariable, assignment, constraints)
+                .stream()
+                .map(value -> assignment.assign(unassignedVariable, value, constraints))
+                .filter(successor -> successor.isConsistent(constraints));
+    }
+
+    /**
+     * Does the same as the untraced successor function, but times forward checking and the consistency check of
+     * every single constraint, and reports them to the tracer.
+     */
+    private Optional<Assignment<Type>> tracedSuccessor(
+            final Assignment<Type> assignment,
+            final Variable<Type> variable,
+            final Type value,
+            final Set<Constraint> constraints) {
+        final long start = System.nanoTime();
+        final Assignment<Type> successor = assignment.assign(variable, value, constraints);
+        tracer.forwardChecked(System.nanoTime() - start);
+
+        boolean consistent = true;
+        // a value that several constraints prune from the same variable is removed once, so it is reported once
+        final Set<VariableIdentity> prunedVariables = new HashSet<>();
+        for (Constraint constraint : constraints) {
+            final long begin = System.nanoTime();
+            consistent = successor.isConsistent(constraint);
+            final long nanos = System.nanoTime() - begin;
+            final int prunes = prunesOf(constraint, assignment, variable, value, prunedVariables);
+            tracer.propagated(constraint.getClass(), nanos, prunes, !consistent);
+            if (!consistent) {
+                break;
+            }
+        }
+        tracer.branched(depthOf(successor), variable.identity(), value, consistent);
+        return consistent ? Optional.of(successor) : Optional.empty();
+    }
+
+    private static <Type> int prunesOf(
+            final Constraint constraint,
+            final Assignment<Type> assignment,
+            final Variable<Type> variable,
+            final Type value,
+            final Set<VariableIdentity> prunedVariables) {
+        if (!constraint.prunesAssignedValue() || !constraint.reliesOn().contains(variable.identity())) {
+            return 0;
+        }
+        int prunes = 0;
+        for (VariableIdentity identity : constraint.reliesOn()) {
+            final Variable<Type> dependentVariable = assignment.variableOf(identity);
+            if (!dependentVariable.isAssigned() &&
+                    dependentVariable.domain().contains(value) &&
+                    !identity.equals(variable.identity()) &&
+                    prunedVariables.add(identity)) {
+                prunes++;
+            }
+        }
+        return prunes;
+    }
+
+    /**
+     * Runs the given search and reports its start and its end to the tracer. The end is reported even if the
+     * search fails with an exception, e.g. because it has been interrupted.
+     *
+     * @param search
+     *      performs the actual search
+     * @return
+     *      the result of the given search
+     */
+    protected Optional<Assignment<Type>> traceSolve(final Supplier<Optional<Assignment<Type>>> search) {
+        if (tracer == SearchTracer.NONE) {
+            return search.get();
+        }
+        tracer.solveStarted(getClass().getSimpleName());
+        boolean solved = false;
+        try {
+            final Optional<Assignment<Type>> solution = search.get();
+            solved = solution.isPresent();
+            return solution;
+        } finally {
+            // an aborted search is reported as unsolved, so that the tracer is able to finish its records
+            tracer.solveEnded(solved);
+        }
+    }
+
+    /**
+     * @return
+     *      the tracer of this solver, which is {@link SearchTracer#NONE} if tracing is disabled
+     */
+    protected SearchTracer tracer() {
+        return tracer;
+    }
+
+    /**
+     * @param assignment
+     *      a state of the search
+     * @return
+     *      the depth of the given state in the search tree as reported to the tracer, i.e. its number of assigned
+     *      variables
+     */
+    protected static int depthOf(final Assignment<?> assignment) {
+        return assignment.variableIdentities().size() - assignment.numberOfUnassignedVariables();
+    }
+
+    /**
+     * Aborts the search if the thread that runs it has been interrupted, e.g. because the search exceeded its
+     * budget (cf. {@link SolverService}).
+     *
+     * @throws CancellationException
+     *      if the current thread has been interrupted
+     */
+    static void abortIfInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The search has been interrupted.");
+        }
+    }
+
+    protected void notifyListeners(final Assignment<Type> assignment) {
+        listeners.forEach(listener -> listener.accept(assignment));
+    }
+
+    /**
+     * Registers a listener that is notified synchronously about every consistent {@link Assignment} the search
+     * progresses to. Listeners that do more than trivial work should be wrapped in an {@link AsyncListener},
+     * so that observing the search does not slow it down.
+     *
+     * @param listener
+     *      the listener that ought to be notified about the progress of the search
+     */
+    public void addListener(final Consumer<Assignment<Type>> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Enables tracing the internals of the search. Tracing is disabled by default.
+     *
+     * @param tracer
+     *      the tracer that ought to observe the search, or {@link SearchTracer#NONE} to disable tracing
+     */
+    public void trace(final SearchTracer tracer) {
+        this.tracer = tracer == null ? SearchTracer.NONE : tracer;
+    }
+}
@@ -71,11 +71,42 @@ public class AllDiff implements Constraint {
         return allVariablesAssigned && isConsistent(dependentVariables);
     }
 
+    /**
+     * Counts the variables that would have to change their value for this constraint to be satisfied, i.e. every
+     * variable that is either unassigned or shares its value with another variable that has been counted before.
+     */
+    @Override
+    public <Type> int violationsOf(final Set<Variable<Type>> dependentVariables) {
+        final Set<Type> distinctValues = new HashSet<>();
+        int violations = 0;
+        for (Variable<Type> variable : dependentVariables) {
+            if (!variable.isAssigned() || !distinctValues.add(variable.valueOf())) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
     @Override
     public Set<VariableIdentity> reliesOn() {
         return Collections.unmodifiableSet(reliesOn);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AllDiff allDiff = (AllDiff) o;
+
+        return reliesOn.equals(allDiff.reliesOn);
+    }
+
+    @Override
+    public int hashCode() {
+        return reliesOn.hashCode();
+    }
+
     public static AllDiff on(final VariableIdentity... identities) {
         final Set<VariableIdentity> reliesOn = new HashSet<>();
         for (VariableIdentity identity : identities) {
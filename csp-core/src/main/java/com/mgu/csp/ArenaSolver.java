@@ -0,0 +1,341 @@
+package com.mgu.csp;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Performs a depth-first search with forward checking, just like {@link DFSSolver}, but keeps the state of the
+ * search in a {@link DomainArena} instead of a chain of immutable {@link Assignment}s. The arena lives off-heap and
+ * records every change on a trail, so backtracking restores the previous state in place. Thus, the search neither
+ * copies domains nor allocates per node, which keeps the garbage collector quiet even for very large models.
+ * The arena is allocated when a solve starts and released when it ends.
+ *
+ * The solver handles {@link AllDiff} constraints natively: assigning a value removes it from the domains of all
+ * neighbouring variables, and a variable whose domain is reduced to a single value is assigned right away. All
+ * other constraints are checked by materializing the state of their variables, which does allocate on the heap.
+ * The solver always picks the unassigned variable with the fewest remaining values (cf.
+ * {@link MinimumRemainingValue}) and tries values in the order of their first occurrence in the initial
+ * domains. Listeners are not supported, since there are no {@code Assignment}s to report until the search ends.
+ *
+ * The iterative search loop keeps its own stack, so the depth of the search is not limited by the call stack.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class ArenaSolver<Type> implements Solver<Type> {
+
+    /**
+     * @throws IllegalArgumentException
+     *      if a constraint relies on a variable that is not part of the initial assignment
+     */
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+        final Set<Constraint> constraints = csp.constraints();
+
+        // the model checks the scopes of the constraints, which must happen before they are evaluated
+        final Model model = new Model(initialAssignment, constraints);
+        if (!initialAssignment.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+
+        try (DomainArena arena = DomainArena.allocate(model.identities.size(), model.values.size())) {
+            return model.search(arena);
+        }
+    }
+
+    private class Model {
+
+        private final List<VariableIdentity> identities = new ArrayList<>();
+
+        private final List<Type> values = new ArrayList<>();
+
+        private final Map<VariableIdentity, Integer> indexOfVariable = new HashMap<>();
+
+        private final Map<Type, Integer> indexOfValue = new HashMap<>();
+
+        private final Assignment<Type> initialAssignment;
+
+        private final Set<Constraint> constraints;
+
+        private final int[][] neighbours;
+
+        private final List<Constraint> otherConstraints = new ArrayList<>();
+
+        private final List<int[]> scopeOfOtherConstraint = new ArrayList<>();
+
+        private final int[][] otherConstraintsOfVariable;
+
+        private final int[] propagationQueue;
+
+        private final int[] stackOfVariables;
+
+        private final int[] stackOfMarks;
+
+        private final int[] stackOfValues;
+
+        Model(final Assignment<Type> initialAssignment, final Set<Constraint> constraints) {
+            this.initialAssignment = initialAssignment;
+            this.constraints = constraints;
+            for (VariableIdentity identity : initialAssignment.variableIdentities()) {
+                indexOfVariable.put(identity, identities.size());
+                identities.add(identity);
+                final Variable<Type> variable = initialAssignment.variableOf(identity);
+                if (variable.isAssigned()) {
+                    indexOf(variable.valueOf());
+                } else {
+                    variable.domain().forEach(this::indexOf);
+                }
+            }
+
+            final List<Set<Integer>> neighboursOfVariable = new ArrayList<>();
+            final List<List<Integer>> dependentConstraints = new ArrayList<>();
+            identities.forEach(identity -> {
+                neighboursOfVariable.add(new LinkedHashSet<>());
+                dependentConstraints.add(new ArrayList<>());
+            });
+            for (Constraint constraint : constraints) {
+                final int[] scope = IntCSP.scopeOf(constraint, indexOfVariable);
+                if (constraint instanceof AllDiff) {
+                    for (int variable : scope) {
+                        for (int neighbour : scope) {
+                            if (variable != neighbour) {
+                                neighboursOfVariable.get(variable).add(neighbour);
+                            }
+                        }
+                    }
+                } else {
+                    for (int variable : scope) {
+                        dependentConstraints.get(variable).add(otherConstraints.size());
+                    }
+                    otherConstraints.add(constraint);
+                    scopeOfOtherConstraint.add(scope);
+                }
+            }
+
+            final int numberOfVariables = identities.size();
+            this.neighbours = new int[numberOfVariables][];
+            this.otherConstraintsOfVariable = new int[numberOfVariables][];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                neighbours[variable] = neighboursOfVariable.get(variable).stream().mapToInt(Integer::intValue).toArray();
+                otherConstraintsOfVariable[variable] = dependentConstraints.get(variable).stream().mapToInt(Integer::intValue).toArray();
+            }
+            this.propagationQueue = new int[numberOfVariables];
+            this.stackOfVariables = new int[numberOfVariables + 1];
+            this.stackOfMarks = new int[numberOfVariables + 1];
+            this.stackOfValues = new int[numberOfVariables + 1];
+        }
+
+        private int indexOf(final Type value) {
+            return indexOfValue.computeIfAbsent(value, newValue -> {
+                values.add(newValue);
+                return values.size() - 1;
+            });
+        }
+
+        Optional<Assignment<Type>> search(final DomainArena arena) {
+            for (int variable = 0; variable < identities.size(); variable++) {
+                final Variable<Type> state = initialAssignment.variableOf(identities.get(variable));
+                if (state.isAssigned()) {
+                    final int value = indexOfValue.get(state.valueOf());
+                    arena.initialize(variable, value);
+                    arena.assign(variable, value);
+                } else {
+                    for (Type value : state.domain()) {
+                        arena.initialize(variable, indexOfValue.get(value));
+                    }
+                }
+            }
+
+            int depth = 0;
+            int next = select(arena);
+            if (next == -1) {
+                return solutionOf(arena);
+            }
+            push(depth++, next, arena.mark());
+
+            while (depth > 0) {
+                AbstractSolver.abortIfInterrupted();
+                final int top = depth - 1;
+                final int variable = stackOfVariables[top];
+                arena.undo(stackOfMarks[top]);
+                final int value = arena.nextValue(variable, stackOfValues[top] + 1);
+                if (value == -1) {
+                    depth--;
+                    continue;
+                }
+                stackOfValues[top] = value;
+                if (!assign(arena, variable, value)) {
+                    continue;
+                }
+                next = select(arena);
+                if (next == -1) {
+                    final Optional<Assignment<Type>> solution = solutionOf(arena);
+                    if (solution.isPresent()) {
+                        return solution;
+                    }
+                    continue;
+                }
+                if (arena.size(next) > 0) {
+                    push(depth++, next, arena.mark());
+                }
+            }
+            return Optional.empty();
+        }
+
+        private void push(final int depth, final int variable, final int mark) {
+            stackOfVariables[depth] = variable;
+            stackOfMarks[depth] = mark;
+            stackOfValues[depth] = -1;
+        }
+
+        /**
+         * Selects the unassigned variable with the fewest remaining values.
+         */
+        private int select(final DomainArena arena) {
+            int selected = -1;
+            int fewestValues = Integer.MAX_VALUE;
+            for (int variable = 0; variable < identities.size(); variable++) {
+                if (arena.isAssigned(variable)) {
+                    continue;
+                }
+                final int size = arena.size(variable);
+                if (size < fewestValues) {
+                    selected = variable;
+                    fewestValues = size;
+                    if (size <= 1) {
+                        break;
+                    }
+                }
+            }
+            return selected;
+        }
+
+        /**
+         * Assigns the given value to the given variable and propagates the assignment to its neighbours. Variables
+         * whose domains are reduced to a single value are assigned and propagated in turn.
+         */
+        private boolean assign(final DomainArena arena, final int variable, final int value) {
+            int head = 0;
+            int tail = 0;
+            arena.assign(variable, value);
+            propagationQueue[tail++] = variable;
+            while (head < tail) {
+                final int assigned = propagationQueue[head++];
+                final int assignedValue = arena.assignedValue(assigned);
+                for (int neighbour : neighbours[assigned]) {
+                    if (arena.isAssigned(neighbour)) {
+                        if (arena.assignedValue(neighbour) == assignedValue) {
+                            return false;
+                        }
+                        continue;
+                    }
+                    if (!arena.remove(neighbour, assignedValue)) {
+                        continue;
+                    }
+                    final int remainingValues = arena.size(neighbour);
+                    if (remainingValues == 0) {
+                        return false;
+                    }
+                    if (remainingValues == 1) {
+                        arena.assign(neighbour, arena.nextValue(neighbour, 0));
+                        propagationQueue[tail++] = neighbour;
+                    }
+                }
+                if (!otherConstraintsAreConsistent(arena, assigned)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean otherConstraintsAreConsistent(final DomainArena arena, final int variable) {
+            for (int constraint : otherConstraintsOfVariable[variable]) {
+                if (!otherConstraints.get(constraint).isConsistent(new Scope(arena, scopeOfOtherConstraint.get(constraint)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Constraints other than {@link AllDiff} have only been checked for consistency so far, so a complete
+         * assignment has to be checked for satisfaction as well.
+         */
+        private Optional<Assignment<Type>> solutionOf(final DomainArena arena) {
+            final Assignment<Type> assignment = toAssignment(arena);
+            return assignment.isSatisfied(constraints) ? Optional.of(assignment) : Optional.empty();
+        }
+
+        private Assignment<Type> toAssignment(final DomainArena arena) {
+            final Map<VariableIdentity, Variable<Type>> variables = new HashMap<>();
+            for (int variable = 0; variable < identities.size(); variable++) {
+                variables.put(identities.get(variable), materialize(arena, variable));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        private Variable<Type> materialize(final DomainArena arena, final int variable) {
+            final VariableIdentity identity = identities.get(variable);
+            if (arena.isAssigned(variable)) {
+                return Variable.assignedVariable(identity, values.get(arena.assignedValue(variable)));
+            }
+            final Set<Type> domain = new LinkedHashSet<>();
+            for (int value = arena.nextValue(variable, 0); value != -1; value = arena.nextValue(variable, value + 1)) {
+                domain.add(values.get(value));
+            }
+            return Variable.unassignedVariable(identity, domain);
+        }
+
+        /**
+         * Materialized view on the current state of the variables a constraint relies on.
+         */
+        private class Scope extends AbstractSet<Variable<Type>> {
+
+            private final DomainArena arena;
+
+            private final int[] variables;
+
+            Scope(final DomainArena arena, final int[] variables) {
+                this.arena = arena;
+                this.variables = variables;
+            }
+
+            @Override
+            public Iterator<Variable<Type>> iterator() {
+                return new Iterator<Variable<Type>>() {
+
+                    private int position = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < variables.length;
+                    }
+
+                    @Override
+                    public Variable<Type> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return materialize(arena, variables[position++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return variables.length;
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.mgu.csp;
 
+import java.util.AbstractSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -15,6 +19,10 @@ import java.util.stream.Collectors;
  * This {@code Assignment} applies forward checking. Thus, whenever a {@code Variable} is
  * assigned to a value, that value is removed from the domain of all dependent unassigned variables
  *
+ * Queries that the solvers issue for every node of the search tree do not copy the state of the assignment:
+ * the number of unassigned variables is maintained along with every derived assignment, and the sets returned by
+ * {@link #unassignedVariables()} and handed to the {@link Constraint}s are read-only views.
+ *
  * This class is immutable.
  *
  * @param <Type>
@@ -26,8 +34,15 @@ public class Assignment<Type> {
 
     private final Map<VariableIdentity, Variable<Type>> variableAssignments;
 
+    private final int numberOfUnassignedVariables;
+
     private Assignment(final Map<VariableIdentity, Variable<Type>> variableAssignments) {
+        this(variableAssignments, countUnassigned(variableAssignments));
+    }
+
+    private Assignment(final Map<VariableIdentity, Variable<Type>> variableAssignments, final int numberOfUnassignedVariables) {
         this.variableAssignments = variableAssignments;
+        this.numberOfUnassignedVariables = numberOfUnassignedVariables;
     }
 
     /**
@@ -46,6 +61,10 @@ public class Assignment<Type> {
                 .allMatch(constraint -> constraint.isConsistent(subsetOf(constraint.reliesOn())));
     }
 
+    boolean isConsistent(final Constraint constraint) {
+        return constraint.isConsistent(subsetOf(constraint.reliesOn()));
+    }
+
     /**
      * A complete assignment is one in which every variable of the CSP is mentioned.
      *
@@ -54,10 +73,7 @@ public class Assignment<Type> {
      *      {@code Set} of {@code Variable}s, {@code false} otherwise
      */
     public boolean isComplete() {
-        return variableAssignments
-                .values()
-                .stream()
-                .allMatch(variable -> variable.isAssigned());
+        return numberOfUnassignedVariables == 0;
     }
 
     /**
@@ -87,30 +103,43 @@ public class Assignment<Type> {
      * @return
      *      copy of this {@code Assignment} with the additional variable
      *      assignment based on the given parameters
+     * @throws IllegalArgumentException
+     *      if the given variable is not part of this {@code Assignment}
+     * @throws IllegalStateException
+     *      if the given variable has already been assigned a value within this {@code Assignment}
      */
     public Assignment<Type> assign(final Variable<Type> variable, final Type value, final Set<Constraint> constraints) {
-        final Variable<Type> assignedVariable = variable.assign(value);
+        final Variable<Type> currentVariable = variableAssignments.get(variable.identity());
+        if (currentVariable == null) {
+            throw new IllegalArgumentException("Variable " + variable.identity() + " is not part of this assignment.");
+        }
+        if (currentVariable.isAssigned()) {
+            throw new IllegalStateException("Unable to assign value " + value + " to variable " + variable.identity() +
+                                            ", since it has already been assigned value " + currentVariable.valueOf() + ".");
+        }
+        final Variable<Type> assignedVariable = currentVariable.assign(value);
         final Map<VariableIdentity, Variable<Type>> shallowCopyOfVariableAssignments = new HashMap<>(this.variableAssignments);
         shallowCopyOfVariableAssignments.put(assignedVariable.identity(), assignedVariable);
-        Assignment<Type> assignment = new Assignment<>(shallowCopyOfVariableAssignments);
-        // missing foldLeft here so that we could reduce + combine variable identities to assignments
+        // forward checking works on the same copy, instead of copying the whole assignment once per dependent variable
         for (VariableIdentity variableIdentity : dependentVariables(variable, constraints)) {
-            assignment = assignment.restrict(variableIdentity, value);
+            shallowCopyOfVariableAssignments.put(variableIdentity, variableAssignments.get(variableIdentity).restrict(value));
         }
-        return assignment;
+        return new Assignment<>(shallowCopyOfVariableAssignments, numberOfUnassignedVariables - 1);
     }
 
     private Set<VariableIdentity> dependentVariables(final Variable<Type> variable, final Set<Constraint> constraints) {
-        return constraints
-                .stream()
-                .filter(constraint -> constraint.reliesOn().contains(variable.identity()))
-                .map(dependentConstraint -> dependentConstraint.reliesOn())
-                .flatMap(Set::stream)
-                .collect(Collectors.toSet())
-                .stream()
-                .filter(variableIdentity -> !variableIdentity.equals(variable.identity()))
-                .filter(variableIdentity -> !variableAssignments.get(variableIdentity).isAssigned())
-                .collect(Collectors.toSet());
+        final Set<VariableIdentity> dependentVariables = new HashSet<>();
+        for (Constraint constraint : constraints) {
+            if (!constraint.prunesAssignedValue() || !constraint.reliesOn().contains(variable.identity())) {
+                continue;
+            }
+            for (VariableIdentity variableIdentity : constraint.reliesOn()) {
+                if (!variableIdentity.equals(variable.identity()) && !variableAssignments.get(variableIdentity).isAssigned()) {
+                    dependentVariables.add(variableIdentity);
+                }
+            }
+        }
+        return dependentVariables;
     }
 
     /**
@@ -130,28 +159,91 @@ public class Assignment<Type> {
         final Variable<Type> variable = variableAssignments.get(variableIdentity);
         final Map<VariableIdentity, Variable<Type>> shallowCopyOfVariableAssignments = new HashMap<>(this.variableAssignments);
         shallowCopyOfVariableAssignments.put(variableIdentity, variable.restrict(restrictByValue));
-        return new Assignment<>(shallowCopyOfVariableAssignments);
+        return new Assignment<>(shallowCopyOfVariableAssignments, numberOfUnassignedVariables);
     }
 
     private Set<Variable<Type>> subsetOf(final Set<VariableIdentity> variableIdentities) {
-        return Collections.unmodifiableSet(variableIdentities
-                .stream()
-                .map(variableIdentity -> variableAssignments.get(variableIdentity))
-                .collect(Collectors.toSet()));
+        return new SubsetView(variableIdentities);
     }
 
     /**
      * @return
-     *      Unmodifiable {@link Set} of all {@link Variable}s that are not assigned.
+     *      Unmodifiable view on the {@link Variable}s that are not assigned. Its size is known in constant time,
+     *      while iterating over it visits all variables of this {@code Assignment}.
      */
     public Set<Variable<Type>> unassignedVariables() {
+        return new UnassignedView();
+    }
+
+    /**
+     * @return
+     *      number of {@link Variable}s that are not assigned
+     */
+    public int numberOfUnassignedVariables() {
+        return numberOfUnassignedVariables;
+    }
+
+    /**
+     * @return
+     *      Unmodifiable {@link Set} of all values that are assigned to some {@link Variable} of this
+     *      {@code Assignment}
+     */
+    public Set<Type> assignedValues() {
         return Collections.unmodifiableSet(variableAssignments
                 .values()
                 .stream()
-                .filter(variable -> !variable.isAssigned())
+                .filter(variable -> variable.isAssigned())
+                .map(variable -> variable.valueOf())
                 .collect(Collectors.toSet()));
     }
 
+    /**
+     * @return
+     *      Unmodifiable {@link Set} of the identities of all {@link Variable}s of this {@code Assignment}
+     */
+    public Set<VariableIdentity> variableIdentities() {
+        return Collections.unmodifiableSet(variableAssignments.keySet());
+    }
+
+    /**
+     * Projects this {@code Assignment} onto the given subset of its variables.
+     *
+     * @param variableIdentities
+     *      identities of the variables that the projection ought to retain
+     * @return
+     *      copy of this {@code Assignment} that only contains the variables identified by the given identities
+     */
+    public Assignment<Type> restrictTo(final Set<VariableIdentity> variableIdentities) {
+        final Map<VariableIdentity, Variable<Type>> projection = new HashMap<>();
+        variableIdentities.forEach(variableIdentity -> projection.put(variableIdentity, variableAssignments.get(variableIdentity)));
+        return new Assignment<>(projection);
+    }
+
+    /**
+     * Merges this {@code Assignment} with the given one. If both contain the same variable, the state of that
+     * variable is taken from the given {@code Assignment}.
+     *
+     * @param assignment
+     *      the {@code Assignment} that ought to be merged into this one
+     * @return
+     *      copy of this {@code Assignment} that contains the variables of both {@code Assignment}s
+     */
+    public Assignment<Type> merge(final Assignment<Type> assignment) {
+        final Map<VariableIdentity, Variable<Type>> union = new HashMap<>(this.variableAssignments);
+        union.putAll(assignment.variableAssignments);
+        return new Assignment<>(union);
+    }
+
+    /**
+     * @param variableIdentity
+     *      uniquely identifies a variable within this {@code Assignment}
+     * @return
+     *      the current state of the variable identified by the given identity
+     */
+    public Variable<Type> variableOf(final VariableIdentity variableIdentity) {
+        return this.variableAssignments.get(variableIdentity);
+    }
+
     public Type valueOf(final VariableIdentity variableIdentity) {
         return this.variableAssignments.get(variableIdentity).valueOf();
     }
@@ -174,6 +266,109 @@ public class Assignment<Type> {
         return sb.toString();
     }
 
+    private static <Type> int countUnassigned(final Map<VariableIdentity, Variable<Type>> variableAssignments) {
+        int unassigned = 0;
+        for (Variable<Type> variable : variableAssignments.values()) {
+            if (!variable.isAssigned()) {
+                unassigned++;
+            }
+        }
+        return unassigned;
+    }
+
+    /**
+     * Read-only view on the state of the variables a {@link Constraint} relies on.
+     */
+    private class SubsetView extends AbstractSet<Variable<Type>> {
+
+        private final Set<VariableIdentity> variableIdentities;
+
+        SubsetView(final Set<VariableIdentity> variableIdentities) {
+            this.variableIdentities = variableIdentities;
+        }
+
+        @Override
+        public Iterator<Variable<Type>> iterator() {
+            final Iterator<VariableIdentity> identities = variableIdentities.iterator();
+            return new Iterator<Variable<Type>>() {
+
+                @Override
+                public boolean hasNext() {
+                    return identities.hasNext();
+                }
+
+                @Override
+                public Variable<Type> next() {
+                    return variableAssignments.get(identities.next());
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof Variable && variableIdentities.contains(((Variable<?>) o).identity());
+        }
+
+        @Override
+        public int size() {
+            return variableIdentities.size();
+        }
+    }
+
+    /**
+     * Read-only view on the unassigned variables of this {@code Assignment}.
+     */
+    private class UnassignedView extends AbstractSet<Variable<Type>> {
+
+        @Override
+        public Iterator<Variable<Type>> iterator() {
+            final Iterator<Variable<Type>> variables = variableAssignments.values().iterator();
+            return new Iterator<Variable<Type>>() {
+
+                private Variable<Type> next = advance();
+
+                private Variable<Type> advance() {
+                    while (variables.hasNext()) {
+                        final Variable<Type> variable = variables.next();
+                        if (!variable.isAssigned()) {
+                            return variable;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Variable<Type> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    final Variable<Type> current = next;
+                    next = advance();
+                    return current;
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Variable)) {
+                return false;
+            }
+            final Variable<Type> variable = variableAssignments.get(((Variable<?>) o).identity());
+            return variable != null && !variable.isAssigned();
+        }
+
+        @Override
+        public int size() {
+            return numberOfUnassignedVariables;
+        }
+    }
+
     public static <Type> Assignment<Type> initialAssignment(final Map<VariableIdentity, Variable<Type>> variableAssignments) {
         return new Assignment<>(variableAssignments);
     }
@@ -0,0 +1,218 @@
+package com.mgu.csp;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decouples a slow listener from the search loop of a solver. Every {@link Assignment} that is handed to
+ * this listener is put into a bounded ring buffer and delivered to the wrapped listener on a separate
+ * daemon thread. Since {@code Assignment}s are immutable, they can be passed between threads safely.
+ *
+ * The solver thread never blocks on this listener. If the ring buffer is full, the configured
+ * {@link Overflow} policy decides which event is discarded. A sampling interval of {@code n} only
+ * forwards every n-th event to the ring buffer in the first place. Coalescing to the latest state is
+ * achieved by a ring buffer of capacity one that drops its oldest entry (cf. {@link #latestOnly(Consumer)}).
+ *
+ * Closing this listener delivers all events that are still buffered and stops the delivery thread. Events that
+ * arrive after this listener has been closed are ignored. If the wrapped listener throws a
+ * {@link RuntimeException}, the event is counted as failed and delivery continues with the next one.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class AsyncListener<Type> implements Consumer<Assignment<Type>>, AutoCloseable {
+
+    /**
+     * Backpressure policy that is applied if an event arrives while the ring buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * Discards the event that has just arrived and keeps the buffered ones.
+         */
+        DROP_NEWEST,
+        /**
+         * Discards the oldest buffered event to make room for the one that has just arrived.
+         */
+        DROP_OLDEST
+    }
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final Consumer<Assignment<Type>> listener;
+
+    private final BlockingQueue<Assignment<Type>> ringBuffer;
+
+    private final Overflow overflow;
+
+    private final long samplingInterval;
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Object lock = new Object();
+
+    private final Thread deliveryThread;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param listener
+     *      the listener that receives events on the delivery thread
+     * @param capacity
+     *      capacity of the ring buffer, must be positive
+     * @param overflow
+     *      backpressure policy that is applied if the ring buffer is full
+     * @param samplingInterval
+     *      only every n-th event is buffered for delivery, must be positive
+     * @throws IllegalArgumentException
+     *      if either {@code capacity} or {@code samplingInterval} is not positive
+     */
+    public AsyncListener(
+            final Consumer<Assignment<Type>> listener,
+            final int capacity,
+            final Overflow overflow,
+            final long samplingInterval) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the ring buffer must be positive, but was " + capacity + ".");
+        }
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval must be positive, but was " + samplingInterval + ".");
+        }
+        this.listener = listener;
+        this.ringBuffer = new ArrayBlockingQueue<>(capacity);
+        this.overflow = overflow;
+        this.samplingInterval = samplingInterval;
+        this.deliveryThread = new Thread(this::deliver, "csp-listener-" + System.identityHashCode(this));
+        this.deliveryThread.setDaemon(true);
+        this.deliveryThread.start();
+    }
+
+    @Override
+    public void accept(final Assignment<Type> assignment) {
+        // the lock is only contended by close, so an event is either buffered before the delivery thread is told
+        // to stop, or it is not buffered at all
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            if ((received.getAndIncrement() % samplingInterval) != 0) {
+                return;
+            }
+            if (overflow == Overflow.DROP_NEWEST) {
+                if (!ringBuffer.offer(assignment)) {
+                    dropped.incrementAndGet();
+                }
+                return;
+            }
+            while (!ringBuffer.offer(assignment)) {
+                if (ringBuffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void deliver() {
+        try {
+            while (running || !ringBuffer.isEmpty()) {
+                final Assignment<Type> assignment = ringBuffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (assignment == null) {
+                    continue;
+                }
+                try {
+                    listener.accept(assignment);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // a failing listener must neither stop the delivery of later events nor affect the solver
+                    failed.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return
+     *      number of events that have been discarded due to the backpressure policy (not counting
+     *      events that have been skipped due to sampling)
+     */
+    public long droppedEvents() {
+        return dropped.get();
+    }
+
+    /**
+     * @return
+     *      number of events that have been delivered to the wrapped listener
+     */
+    public long deliveredEvents() {
+        return delivered.get();
+    }
+
+    /**
+     * @return
+     *      number of events for which the wrapped listener has thrown a {@link RuntimeException}
+     */
+    public long failedEvents() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting new events, delivers all events that are still buffered and waits for the
+     * delivery thread to terminate.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            running = false;
+        }
+        try {
+            deliveryThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Coalesces events so that the wrapped listener only ever sees the latest state of the search.
+     *
+     * @param listener
+     *      the listener that receives events on the delivery thread
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      an {@code AsyncListener} with a ring buffer of capacity one that drops its oldest entry
+     */
+    public static <Type> AsyncListener<Type> latestOnly(final Consumer<Assignment<Type>> listener) {
+        return new AsyncListener<>(listener, 1, Overflow.DROP_OLDEST, 1);
+    }
+
+    /**
+     * Samples every n-th event of the search.
+     *
+     * @param n
+     *      sampling interval, must be positive
+     * @param capacity
+     *      capacity of the ring buffer, must be positive
+     * @param listener
+     *      the listener that receives events on the delivery thread
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      an {@code AsyncListener} that buffers every n-th event and drops the newest event if its
+     *      ring buffer is full
+     */
+    public static <Type> AsyncListener<Type> everyNth(final long n, final int capacity, final Consumer<Assignment<Type>> listener) {
+        return new AsyncListener<>(listener, capacity, Overflow.DROP_NEWEST, n);
+    }
+}
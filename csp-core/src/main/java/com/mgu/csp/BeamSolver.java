@@ -0,0 +1,106 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Performs a beam search. The solver progresses along the state space level by level, but retains only a bounded
+ * number of states (the beam) on each level. The successors of all states of the beam are ranked by the number of
+ * discrepancies from the {@link ValueOrdering} that led to them, where picking the i-th consistent value of a
+ * variable counts as i discrepancies. Ties are broken in favour of the successors of higher ranked states. The
+ * best successors form the beam of the next level.
+ *
+ * The memory and time spent per level are bounded by the width of the beam, which makes beam search well suited
+ * for latency-bounded requests. However, the search is incomplete: it gives up if the beam runs empty, even if
+ * the CSP has a solution.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class BeamSolver<Type> extends AbstractSolver<Type> {
+
+    private final int beamWidth;
+
+    /**
+     * Uses uninformed heuristics for {@link VariableOrdering} and {@link ValueOrdering}.
+     *
+     * @param beamWidth
+     *      maximum number of states that are retained per level, must be positive
+     */
+    public BeamSolver(final int beamWidth) {
+        this(new VariableOrdering<Type>() {}, new ValueOrdering<Type>() {}, beamWidth);
+    }
+
+    /**
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     * @param beamWidth
+     *      maximum number of states that are retained per level, must be positive
+     * @throws IllegalArgumentException
+     *      if {@code beamWidth} is not positive
+     */
+    public BeamSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering, final int beamWidth) {
+        super(variableOrdering, valueOrdering);
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("The width of the beam must be positive, but was " + beamWidth + ".");
+        }
+        this.beamWidth = beamWidth;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+
+        if (!initialAssignment.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+
+        return traceSolve(() -> search(constraints, initialAssignment));
+    }
+
+    private Optional<Assignment<Type>> search(final Set<Constraint> constraints, final Assignment<Type> initialAssignment) {
+        List<Candidate<Type>> beam = Collections.singletonList(new Candidate<>(initialAssignment, 0));
+        while (!beam.isEmpty()) {
+            final List<Candidate<Type>> candidates = new ArrayList<>();
+            for (Candidate<Type> candidate : beam) {
+                if (candidate.assignment.isSatisfied(constraints)) {
+                    return Optional.of(candidate.assignment);
+                }
+                if (candidate.assignment.isComplete()) {
+                    continue;
+                }
+                final Iterator<Assignment<Type>> successors = successors(candidate.assignment, constraints).iterator();
+                for (int rank = 0; rank < beamWidth && successors.hasNext(); rank++) {
+                    candidates.add(new Candidate<>(successors.next(), candidate.discrepancies + rank));
+                }
+            }
+            // the sort is stable, so ties retain the order of the states they descend from
+            candidates.sort(Comparator.comparingInt(candidate -> candidate.discrepancies));
+            beam = candidates.subList(0, Math.min(beamWidth, candidates.size()));
+            beam.forEach(candidate -> notifyListeners(candidate.assignment));
+        }
+        return Optional.empty();
+    }
+
+    private static class Candidate<Type> {
+
+        private final Assignment<Type> assignment;
+
+        private final int discrepancies;
+
+        Candidate(final Assignment<Type> assignment, final int discrepancies) {
+            this.assignment = assignment;
+            this.discrepancies = discrepancies;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mgu.csp;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a binary trace that has been written by a {@link BinaryTraceWriter}. The records of the trace are
+ * handed to a {@link SearchTracer} in the order in which they have been written. Values are replayed in their
+ * string representation. If the tracer is a {@link Visitor}, it is told about the time that elapsed before each
+ * record as well.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class BinaryTraceReader {
+
+    /**
+     * A {@link SearchTracer} that is interested in the timing of the replayed search.
+     */
+    public interface Visitor extends SearchTracer {
+
+        /**
+         * Called before the record that the elapsed time belongs to is replayed.
+         *
+         * @param nanos
+         *      time in nanoseconds that elapsed between the previous record and the next one
+         */
+        default void elapsed(long nanos) {
+        }
+    }
+
+    private BinaryTraceReader() {
+    }
+
+    /**
+     * Replays the trace that is read from the given stream.
+     *
+     * @param input
+     *      the stream that the trace is read from
+     * @param tracer
+     *      the tracer that the records of the trace are handed to
+     * @throws IOException
+     *      if the trace cannot be read or is malformed
+     */
+    public static void replay(final InputStream input, final SearchTracer tracer) throws IOException {
+        final DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        if (data.readInt() != BinaryTraceWriter.MAGIC) {
+            throw new IOException("The stream does not contain a search trace.");
+        }
+        final int version = data.readUnsignedByte();
+        if (version != BinaryTraceWriter.VERSION) {
+            throw new IOException("Unsupported version " + version + " of the search trace format.");
+        }
+
+        final List<VariableIdentity> variables = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        int tag;
+        while ((tag = data.read()) != -1) {
+            switch (tag) {
+                case BinaryTraceWriter.SOLVE_STARTED:
+                    tracer.solveStarted(data.readUTF());
+                    break;
+                case BinaryTraceWriter.VARIABLE:
+                    Varints.read(data);
+                    variables.add(VariableIdentity.id(data.readUTF()));
+                    break;
+                case BinaryTraceWriter.VALUE:
+                    Varints.read(data);
+                    values.add(data.readUTF());
+                    break;
+                case BinaryTraceWriter.BRANCH:
+                case BinaryTraceWriter.PRUNED_BRANCH:
+                    final int depth = Varints.readInt(data);
+                    final VariableIdentity variable = variables.get(Varints.readInt(data));
+                    final String value = values.get(Varints.readInt(data));
+                    elapsed(tracer, Varints.read(data));
+                    tracer.branched(depth, variable, value, tag == BinaryTraceWriter.BRANCH);
+                    break;
+                case BinaryTraceWriter.BACKTRACK:
+                    final int backtrackDepth = Varints.readInt(data);
+                    elapsed(tracer, Varints.read(data));
+                    tracer.backtracked(backtrackDepth);
+                    break;
+                case BinaryTraceWriter.RESTART:
+                    final int iteration = Varints.readInt(data);
+                    elapsed(tracer, Varints.read(data));
+                    tracer.restarted(iteration);
+                    break;
+                case BinaryTraceWriter.SOLVE_ENDED:
+                    final boolean solved = data.readBoolean();
+                    elapsed(tracer, Varints.read(data));
+                    tracer.solveEnded(solved);
+                    break;
+                default:
+                    throw new IOException("Unknown record " + tag + " in search trace.");
+            }
+        }
+    }
+
+    private static void elapsed(final SearchTracer tracer, final long nanos) {
+        if (tracer instanceof Visitor) {
+            ((Visitor) tracer).elapsed(nanos);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.mgu.csp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the search tree of a traced search to a compact binary trace, which {@link BinaryTraceReader} is able
+ * to replay afterwards, e.g. for visualizing where a slow search on a specific instance spent its time.
+ *
+ * The trace starts off with a header that consists of a magic number and the version of the format. It is
+ * followed by a sequence of records, each of which starts with a tag byte. Variables and values are written only
+ * once, at their first occurrence, and referred to by their index afterwards. All integers are written as
+ * variable-length quantities, so a typical branch record takes less than ten bytes. Every record other than a
+ * dictionary entry carries the time in nanoseconds that elapsed since the previous record. Values are written in
+ * their string representation.
+ *
+ * <pre>
+ *   SOLVE_STARTED  solver name
+ *   VARIABLE       index, name
+ *   VALUE          index, string representation
+ *   BRANCH         depth, variable index, value index, elapsed time
+ *   PRUNED_BRANCH  depth, variable index, value index, elapsed time
+ *   BACKTRACK      depth, elapsed time
+ *   RESTART        iteration, elapsed time
+ *   SOLVE_ENDED    solved, elapsed time
+ * </pre>
+ *
+ * Propagation statistics are not part of the trace (cf. {@code FlightRecorderTracer} of module {@code csp-jfr}).
+ * This class is not thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class BinaryTraceWriter implements SearchTracer, AutoCloseable {
+
+    static final int MAGIC = 0x43535054;
+
+    static final int VERSION = 1;
+
+    static final int SOLVE_STARTED = 1;
+
+    static final int VARIABLE = 2;
+
+    static final int VALUE = 3;
+
+    static final int BRANCH = 4;
+
+    static final int PRUNED_BRANCH = 5;
+
+    static final int BACKTRACK = 6;
+
+    static final int RESTART = 7;
+
+    static final int SOLVE_ENDED = 8;
+
+    private final DataOutputStream output;
+
+    private final Map<VariableIdentity, Integer> indexOfVariable = new HashMap<>();
+
+    private final Map<Object, Integer> indexOfValue = new HashMap<>();
+
+    private long lastRecord = System.nanoTime();
+
+    /**
+     * @param output
+     *      the stream that the trace is written to; it is closed along with this writer
+     * @throws UncheckedIOException
+     *      if the header of the trace cannot be written
+     */
+    public BinaryTraceWriter(final OutputStream output) {
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        try {
+            this.output.writeInt(MAGIC);
+            this.output.writeByte(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void solveStarted(final String solver) {
+        try {
+            output.writeByte(SOLVE_STARTED);
+            output.writeUTF(solver);
+            lastRecord = System.nanoTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void branched(final int depth, final VariableIdentity variable, final Object value, final boolean consistent) {
+        try {
+            final int variableIndex = indexOf(variable);
+            final int valueIndex = indexOf(value);
+            output.writeByte(consistent ? BRANCH : PRUNED_BRANCH);
+            Varints.write(output, depth);
+            Varints.write(output, variableIndex);
+            Varints.write(output, valueIndex);
+            writeElapsedTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void backtracked(final int depth) {
+        try {
+            output.writeByte(BACKTRACK);
+            Varints.write(output, depth);
+            writeElapsedTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void restarted(final int iteration) {
+        try {
+            output.writeByte(RESTART);
+            Varints.write(output, iteration);
+            writeElapsedTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void solveEnded(final boolean solved) {
+        try {
+            output.writeByte(SOLVE_ENDED);
+            output.writeBoolean(solved);
+            writeElapsedTime();
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int indexOf(final VariableIdentity variable) throws IOException {
+        final Integer index = indexOfVariable.get(variable);
+        if (index != null) {
+            return index;
+        }
+        final int newIndex = indexOfVariable.size();
+        indexOfVariable.put(variable, newIndex);
+        output.writeByte(VARIABLE);
+        Varints.write(output, newIndex);
+        output.writeUTF(variable.toString());
+        return newIndex;
+    }
+
+    private int indexOf(final Object value) throws IOException {
+        final Integer index = indexOfValue.get(value);
+        if (index != null) {
+            return index;
+        }
+        final int newIndex = indexOfValue.size();
+        indexOfValue.put(value, newIndex);
+        output.writeByte(VALUE);
+        Varints.write(output, newIndex);
+        output.writeUTF(String.valueOf(value));
+        return newIndex;
+    }
+
+    private void writeElapsedTime() throws IOException {
+        final long now = System.nanoTime();
+        Varints.write(output, Math.max(0L, now - lastRecord));
+        lastRecord = now;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Shaves the bounds of the domains of the unassigned variables: the smallest value of a domain is probed (cf.
+ * {@link ValueProbing.Mode#FAILED_LITERAL_PROBING}) and removed if its probe fails, until a value survives its probe. The same is
+ * done for the largest value. Values in between are not probed at all, which makes shaving much cheaper than
+ * probing every value if domains are large and constraints tend to rule out extreme values.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class BoundsShaving<Type> extends ProbingPreprocessor<Type> {
+
+    private final Comparator<Type> order;
+
+    /**
+     * @param order
+     *      defines the smallest and largest values of a domain
+     */
+    public BoundsShaving(final Comparator<Type> order) {
+        super(true);
+        this.order = order;
+    }
+
+    @Override
+    Optional<Assignment<Type>> reduce(
+            final Assignment<Type> assignment,
+            final VariableIdentity identity,
+            final Set<Constraint> constraints,
+            final long deadline) {
+        final List<Type> ascending = new ArrayList<>(assignment.variableOf(identity).domain());
+        ascending.sort(order);
+        final Optional<Assignment<Type>> lowerBoundShaved = probe(assignment, identity, ascending, constraints, true, deadline);
+        if (!lowerBoundShaved.isPresent()) {
+            return lowerBoundShaved;
+        }
+        final List<Type> descending = new ArrayList<>(lowerBoundShaved.get().variableOf(identity).domain());
+        descending.sort(order.reversed());
+        return probe(lowerBoundShaved.get(), identity, descending, constraints, true, deadline);
+    }
+
+    /**
+     * @return
+     *      a {@code BoundsShaving} that shaves values with respect to their natural ordering
+     */
+    public static <Type extends Comparable<? super Type>> BoundsShaving<Type> naturalOrder() {
+        return new BoundsShaving<Type>(Comparator.<Type>naturalOrder());
+    }
+}
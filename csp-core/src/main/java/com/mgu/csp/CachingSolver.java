@@ -0,0 +1,58 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+
+/**
+ * Puts a {@link SolveCache} in front of a {@link Solver}. The cache is keyed by the {@link Fingerprint} of the
+ * initial assignment of a CSP - which has already been propagated, e.g. by forward checking the givens of a Sudoku -
+ * and its constraint network. Solving a CSP that is identical to one that has been solved before thus amounts to
+ * a lookup.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class CachingSolver<Type> implements Solver<Type> {
+
+    private final Solver<Type> solver;
+
+    private final SolveCache<Type> cache;
+
+    /**
+     * @param solver
+     *      the solver that is applied if the cache does not hold a result for a CSP
+     * @param cache
+     *      the cache that holds the results of previously solved CSPs
+     */
+    public CachingSolver(final Solver<Type> solver, final SolveCache<Type> cache) {
+        this.solver = solver;
+        this.cache = cache;
+    }
+
+    /**
+     * Looks up the solution of the given CSP in the cache and delegates to the underlying {@link Solver}
+     * if there is no such entry.
+     *
+     * @param csp
+     *      represents the CSP to solve
+     * @return
+     *      an {@link Assignment} that is completed, or an empty {@code Optional} if no such {@link Assignment}
+     *      can be found
+     */
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Fingerprint fingerprint = Fingerprint.of(csp.initialAssignment(), csp.constraints());
+        final Optional<Assignment<Type>> cachedResult = cache.get(fingerprint);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        final Optional<Assignment<Type>> result = solver.solve(csp);
+        cache.put(fingerprint, result);
+        return result;
+    }
+
+    public SolveCache<Type> cache() {
+        return cache;
+    }
+}
@@ -40,10 +40,43 @@ public interface Constraint {
      */
     <Type> boolean isSatisfied(Set<Variable<Type>> dependentVariables);
 
+    /**
+     * Measures how far the current state of the dependent variables is from satisfying this {@code Constraint}.
+     * Local search (cf. {@link LocalSearchSolver}) moves variables towards values with fewer violations, so a
+     * finer measure guides it better. The default implementation only tells a satisfied constraint apart from a
+     * violated one.
+     *
+     * @param dependentVariables
+     *      Subset of variables of the CSP that this {@code Constraint} relies on (cf. {@link Constraint#reliesOn()}.
+     * @param <Type>
+     *      represents the type of the domain values of the dependent {@code Variable}s
+     * @return
+     *      {@code 0} if this {@code Constraint} is satisfied with the given {@code Variable}s, a positive number
+     *      of violations otherwise
+     */
+    default <Type> int violationsOf(Set<Variable<Type>> dependentVariables) {
+        return isSatisfied(dependentVariables) ? 0 : 1;
+    }
+
     /**
      * @return
      *      unmodifiable set of {@code VariableIdentity} that identifies the set of variables this particular
      *      {@code Constraint} relies on
      */
     Set<VariableIdentity> reliesOn();
+
+    /**
+     * Determines whether a value that is assigned to one of the variables this {@code Constraint} relies on can be
+     * removed from the domains of all other unassigned variables this {@code Constraint} relies on (cf. forward
+     * checking in {@link Assignment}). This holds for disequality constraints like {@link AllDiff}, which is why
+     * the default implementation yields {@code true}. Constraints that do not forbid equal values must override
+     * this method.
+     *
+     * @return
+     *      {@code true} if an assigned value can be pruned from the domains of the dependent variables,
+     *      {@code false} otherwise
+     */
+    default boolean prunesAssignedValue() {
+        return true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The constraint graph of a CSP has a node for every unassigned variable and connects two nodes if there is a
+ * {@link Constraint} that relies on both of them (cf. {@link Constraint#reliesOn()}). Assigned variables are left
+ * out, since their values are fixed and thus cannot propagate a decision from one of their neighbours to another.
+ *
+ * The connected components of the constraint graph are independent sub-problems: a decision within one component
+ * never affects the consistency of another component.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class ConstraintGraph {
+
+    private final Map<VariableIdentity, VariableIdentity> parents = new HashMap<>();
+
+    private ConstraintGraph(final Set<VariableIdentity> nodes) {
+        nodes.forEach(node -> parents.put(node, node));
+    }
+
+    private VariableIdentity find(final VariableIdentity node) {
+        VariableIdentity root = node;
+        while (!parents.get(root).equals(root)) {
+            root = parents.get(root);
+        }
+        VariableIdentity current = node;
+        while (!current.equals(root)) {
+            final VariableIdentity next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private void union(final VariableIdentity a, final VariableIdentity b) {
+        final VariableIdentity rootOfA = find(a);
+        final VariableIdentity rootOfB = find(b);
+        if (!rootOfA.equals(rootOfB)) {
+            parents.put(rootOfA, rootOfB);
+        }
+    }
+
+    private List<Set<VariableIdentity>> components() {
+        final Map<VariableIdentity, Set<VariableIdentity>> components = new HashMap<>();
+        parents.keySet().forEach(node -> components.computeIfAbsent(find(node), root -> new HashSet<>()).add(node));
+        return new ArrayList<>(components.values());
+    }
+
+    /**
+     * Determines the connected components of the constraint graph for the given state of a CSP.
+     *
+     * @param assignment
+     *      represents the current state of a CSP
+     * @param constraints
+     *      {@code Set} of {@link Constraint}s of the CSP
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      unmodifiable {@code List} of connected components, each given by the identities of its unassigned variables
+     */
+    public static <Type> List<Set<VariableIdentity>> connectedComponents(final Assignment<Type> assignment, final Set<Constraint> constraints) {
+        final Set<VariableIdentity> unassigned = new HashSet<>();
+        assignment.unassignedVariables().forEach(variable -> unassigned.add(variable.identity()));
+        final ConstraintGraph graph = new ConstraintGraph(unassigned);
+        for (Constraint constraint : constraints) {
+            final Iterator<VariableIdentity> reliesOn = constraint
+                    .reliesOn()
+                    .stream()
+                    .filter(unassigned::contains)
+                    .iterator();
+            if (!reliesOn.hasNext()) {
+                continue;
+            }
+            final VariableIdentity first = reliesOn.next();
+            reliesOn.forEachRemaining(other -> graph.union(first, other));
+        }
+        return Collections.unmodifiableList(graph.components());
+    }
+}
@@ -0,0 +1,456 @@
+package com.mgu.csp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distributes the search for a solution of a CSP across {@link CubeWorker}s that run in other processes, following
+ * the cube-and-conquer approach. The coordinator splits the state space into cubes: it expands the search tree
+ * breadth-first, picking variables by means of a {@link VariableOrdering}, until the frontier holds the requested
+ * number of consistent partial assignments. The cubes are handed out to the workers one at a time, and a worker
+ * that has finished a cube gets the next one. Since there are many more cubes than workers, workers that happen
+ * to get easy cubes take over more of the remaining work. A worker fails if its connection breaks or if it does not
+ * answer within the cube timeout. Its cube is handed to another worker, while the worker itself is given up for
+ * the rest of the solve. The cube timeout thus bounds the time a single cube may take; a worker that hangs or dies
+ * without closing its connection is given up after that time instead of blocking the solve.
+ *
+ * A worker whose solver fails on a cube, e.g. with a {@link StackOverflowError}, reports the failure and keeps
+ * serving. The cube is handed to a worker that has not failed on it yet. If the cube fails on three workers - or
+ * on all remaining workers, if there are fewer - the solve fails with an {@link IllegalStateException} that names
+ * the cube, since the cube most likely breaks every solver.
+ *
+ * As soon as some worker reports a solution, the coordinator cancels the cubes that are still running on other
+ * workers and closes all connections. The CSP has no solution if none of the cubes has one.
+ *
+ * The coordinator and its workers must know the same CSP, since cubes are sent as the sequence of decisions that
+ * lead from the initial assignment to the cube. A decision takes the index of its variable and the encoding of its
+ * value (cf. {@link ValueCodec}), which is two bytes for a Sudoku.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class CubeCoordinator<Type> implements Solver<Type> {
+
+    private static final int DEFAULT_CUBES_PER_WORKER = 16;
+
+    private static final long DEFAULT_CUBE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int MAXIMUM_FAILURES_PER_CUBE = 3;
+
+    private final List<InetSocketAddress> workers;
+
+    private final ValueCodec<Type> codec;
+
+    private final VariableOrdering<Type> variableOrdering;
+
+    private final int cubesPerWorker;
+
+    private final int cubeTimeoutMillis;
+
+    /**
+     * Splits the CSP into 16 cubes per worker along the variables with the fewest remaining values. A worker that
+     * does not answer within 10 minutes is given up.
+     *
+     * @param workers
+     *      addresses of the workers
+     * @param codec
+     *      reads and writes domain values
+     */
+    public CubeCoordinator(final List<InetSocketAddress> workers, final ValueCodec<Type> codec) {
+        this(workers, codec, new MinimumRemainingValue<>(), DEFAULT_CUBES_PER_WORKER);
+    }
+
+    /**
+     * @param workers
+     *      addresses of the workers
+     * @param codec
+     *      reads and writes domain values
+     * @param variableOrdering
+     *      picks the variables along which the CSP is split
+     * @param cubesPerWorker
+     *      the coordinator stops splitting once there are this many cubes per worker, must be positive
+     * @throws IllegalArgumentException
+     *      if there are no workers or {@code cubesPerWorker} is not positive
+     */
+    public CubeCoordinator(
+            final List<InetSocketAddress> workers,
+            final ValueCodec<Type> codec,
+            final VariableOrdering<Type> variableOrdering,
+            final int cubesPerWorker) {
+        this(workers, codec, variableOrdering, cubesPerWorker, DEFAULT_CUBE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param workers
+     *      addresses of the workers
+     * @param codec
+     *      reads and writes domain values
+     * @param variableOrdering
+     *      picks the variables along which the CSP is split
+     * @param cubesPerWorker
+     *      the coordinator stops splitting once there are this many cubes per worker, must be positive
+     * @param cubeTimeout
+     *      a worker that does not answer a cube within this time is considered failed
+     * @param unit
+     *      time unit of {@code cubeTimeout}
+     * @throws IllegalArgumentException
+     *      if there are no workers, if {@code cubesPerWorker} is not positive, or if {@code cubeTimeout} is
+     *      shorter than a millisecond
+     */
+    public CubeCoordinator(
+            final List<InetSocketAddress> workers,
+            final ValueCodec<Type> codec,
+            final VariableOrdering<Type> variableOrdering,
+            final int cubesPerWorker,
+            final long cubeTimeout,
+            final TimeUnit unit) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("A coordinator needs at least one worker.");
+        }
+        if (cubesPerWorker < 1) {
+            throw new IllegalArgumentException("The number of cubes per worker must be positive, but was " + cubesPerWorker + ".");
+        }
+        if (unit.toMillis(cubeTimeout) < 1) {
+            throw new IllegalArgumentException("The cube timeout must be at least a millisecond, but was " + cubeTimeout + " " + unit + ".");
+        }
+        this.workers = new ArrayList<>(workers);
+        this.codec = codec;
+        this.variableOrdering = variableOrdering;
+        this.cubesPerWorker = cubesPerWorker;
+        this.cubeTimeoutMillis = (int) Math.min(unit.toMillis(cubeTimeout), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UncheckedIOException
+     *      if all workers failed before every cube has been solved
+     * @throws IllegalStateException
+     *      if the solvers of several workers failed on the same cube
+     */
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+        if (!initialAssignment.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+
+        final List<Cube<Type>> cubes = new ArrayList<>();
+        final Optional<Assignment<Type>> solutionFoundWhileSplitting = split(initialAssignment, constraints, cubes);
+        if (solutionFoundWhileSplitting.isPresent() || cubes.isEmpty()) {
+            return solutionFoundWhileSplitting;
+        }
+        return new Distribution(CubeProtocol.variablesOf(initialAssignment), constraints, cubes).run();
+    }
+
+    /**
+     * Expands the search tree breadth-first until the frontier holds enough cubes or cannot be expanded any more.
+     *
+     * @return
+     *      a solution, if one has been found while expanding the search tree
+     */
+    private Optional<Assignment<Type>> split(final Assignment<Type> initialAssignment, final Set<Constraint> constraints, final List<Cube<Type>> cubes) {
+        final int numberOfCubes = workers.size() * cubesPerWorker;
+        final Deque<Cube<Type>> frontier = new ArrayDeque<>();
+        frontier.add(new Cube<>(initialAssignment, Collections.emptyList(), Collections.emptyList()));
+        while (!frontier.isEmpty() && frontier.size() < numberOfCubes) {
+            final Cube<Type> cube = frontier.poll();
+            if (cube.assignment.isSatisfied(constraints)) {
+                return Optional.of(cube.assignment);
+            }
+            if (cube.assignment.isComplete()) {
+                continue;
+            }
+            final Variable<Type> variable = variableOrdering.selectUnassignedVariable(cube.assignment);
+            for (Type value : variable.domain()) {
+                final Assignment<Type> successor = cube.assignment.assign(variable, value, constraints);
+                if (successor.isConsistent(constraints)) {
+                    frontier.add(cube.extend(successor, variable.identity(), value));
+                }
+            }
+        }
+        cubes.addAll(frontier);
+        return Optional.empty();
+    }
+
+    /**
+     * Hands out the cubes of a single solve to the workers.
+     */
+    private class Distribution {
+
+        private final List<VariableIdentity> variables;
+
+        private final Map<VariableIdentity, Integer> indexOf = new HashMap<>();
+
+        private final Set<Constraint> constraints;
+
+        private final List<Cube<Type>> cubes;
+
+        private final BlockingQueue<Integer> pendingCubes = new LinkedBlockingQueue<>();
+
+        private final Map<DataOutputStream, Integer> runningCubes = new HashMap<>();
+
+        private final Map<Integer, Set<InetSocketAddress>> failedWorkersOfCube = new HashMap<>();
+
+        private final AtomicInteger unsolvedCubes;
+
+        private final AtomicInteger activeWorkers = new AtomicInteger(workers.size());
+
+        private final CompletableFuture<Optional<Assignment<Type>>> result = new CompletableFuture<>();
+
+        private final List<Socket> connections = Collections.synchronizedList(new ArrayList<>());
+
+        Distribution(final List<VariableIdentity> variables, final Set<Constraint> constraints, final List<Cube<Type>> cubes) {
+            this.variables = variables;
+            this.constraints = constraints;
+            for (int variable = 0; variable < variables.size(); variable++) {
+                indexOf.put(variables.get(variable), variable);
+            }
+            this.cubes = cubes;
+            for (int cube = 0; cube < cubes.size(); cube++) {
+                pendingCubes.add(cube);
+            }
+            this.unsolvedCubes = new AtomicInteger(cubes.size());
+        }
+
+        Optional<Assignment<Type>> run() {
+            final List<Thread> threads = new ArrayList<>();
+            for (InetSocketAddress worker : workers) {
+                final Thread thread = new Thread(() -> feed(worker), "csp-cube-coordinator-" + worker);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("The search has been interrupted.");
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            } finally {
+                cancelRunningCubes();
+                // closing the connections unblocks the feeding threads
+                synchronized (connections) {
+                    connections.forEach(this::close);
+                }
+                threads.forEach(Thread::interrupt);
+            }
+        }
+
+        private void feed(final InetSocketAddress worker) {
+            Integer cube = null;
+            try (Socket socket = new Socket()) {
+                socket.connect(worker);
+                // a worker that hangs or died without closing the connection must not block the solve forever
+                socket.setSoTimeout(cubeTimeoutMillis);
+                connections.add(socket);
+                final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                CubeProtocol.writeHandshake(output, variables);
+                output.flush();
+                while (!result.isDone()) {
+                    cube = pendingCubes.poll(10, TimeUnit.MILLISECONDS);
+                    if (cube == null) {
+                        continue;
+                    }
+                    if (hasFailedOn(cube, worker)) {
+                        // leaves the cube to the other workers, unless it has failed on all of them by now
+                        pendingCubes.add(cube);
+                        cube = null;
+                        Thread.sleep(10);
+                        continue;
+                    }
+                    send(output, cube);
+                    final boolean answered = receive(input, cube);
+                    synchronized (runningCubes) {
+                        runningCubes.remove(output);
+                    }
+                    if (!answered) {
+                        failOn(cube, worker);
+                    }
+                    cube = null;
+                }
+            } catch (IOException e) {
+                if (cube != null) {
+                    // some other worker takes over the cube of the failed worker
+                    pendingCubes.add(cube);
+                }
+                if (activeWorkers.decrementAndGet() == 0) {
+                    result.completeExceptionally(new UncheckedIOException("All workers failed before the search space has been exhausted.", e));
+                }
+                synchronized (failedWorkersOfCube) {
+                    // cubes that have failed on all remaining workers cannot be solved any more
+                    failedWorkersOfCube.keySet().forEach(this::failIfExhausted);
+                }
+            } catch (InterruptedException e) {
+                // the solve has ended
+            }
+        }
+
+        private void send(final DataOutputStream output, final int id) throws IOException {
+            final Cube<Type> cube = cubes.get(id);
+            synchronized (runningCubes) {
+                runningCubes.put(output, id);
+            }
+            synchronized (output) {
+                output.writeByte(CubeProtocol.CUBE);
+                Varints.write(output, id);
+                Varints.write(output, cube.variables.size());
+                for (int decision = 0; decision < cube.variables.size(); decision++) {
+                    Varints.write(output, indexOf.get(cube.variables.get(decision)));
+                    codec.write(output, cube.values.get(decision));
+                }
+                output.flush();
+            }
+        }
+
+        /**
+         * Records that the solver of the given worker failed on the given cube. The cube is handed out again,
+         * unless it has failed on too many workers.
+         */
+        private void failOn(final int cube, final InetSocketAddress worker) {
+            synchronized (failedWorkersOfCube) {
+                failedWorkersOfCube.computeIfAbsent(cube, id -> new HashSet<>()).add(worker);
+                if (!failIfExhausted(cube)) {
+                    pendingCubes.add(cube);
+                }
+            }
+        }
+
+        private boolean hasFailedOn(final int cube, final InetSocketAddress worker) {
+            synchronized (failedWorkersOfCube) {
+                final Set<InetSocketAddress> failedWorkers = failedWorkersOfCube.get(cube);
+                if (failedWorkers == null || !failedWorkers.contains(worker)) {
+                    return false;
+                }
+                failIfExhausted(cube);
+                return true;
+            }
+        }
+
+        private boolean failIfExhausted(final int cube) {
+            final int failures = failedWorkersOfCube.getOrDefault(cube, Collections.emptySet()).size();
+            if (failures < Math.min(MAXIMUM_FAILURES_PER_CUBE, Math.max(activeWorkers.get(), 1))) {
+                return false;
+            }
+            final Cube<Type> failedCube = cubes.get(cube);
+            final StringBuilder decisions = new StringBuilder();
+            for (int decision = 0; decision < failedCube.variables.size(); decision++) {
+                decisions.append(decision == 0 ? "" : ", ")
+                        .append(failedCube.variables.get(decision))
+                        .append(" = ")
+                        .append(failedCube.values.get(decision));
+            }
+            result.completeExceptionally(new IllegalStateException("The solvers of " + failures + " workers failed on " +
+                                                                   "cube " + cube + " (" + decisions + ")."));
+            return true;
+        }
+
+        /**
+         * @return
+         *      {@code true} if the worker answered the cube, {@code false} if its solver failed on the cube
+         */
+        private boolean receive(final DataInputStream input, final int cube) throws IOException {
+            final int message = input.readUnsignedByte();
+            final int id = Varints.readInt(input);
+            if (id != cube) {
+                throw new IOException("Worker answered for cube " + id + " instead of cube " + cube + ".");
+            }
+            switch (message) {
+                case CubeProtocol.SOLUTION:
+                    final Map<VariableIdentity, Variable<Type>> solution = new HashMap<>();
+                    for (VariableIdentity variable : variables) {
+                        solution.put(variable, Variable.assignedVariable(variable, codec.read(input)));
+                    }
+                    final Assignment<Type> assignment = Assignment.initialAssignment(solution);
+                    if (!assignment.isSatisfied(constraints)) {
+                        throw new IOException("Worker reported an assignment for cube " + id + " that is not a solution.");
+                    }
+                    result.complete(Optional.of(assignment));
+                    return true;
+                case CubeProtocol.NO_SOLUTION:
+                    if (unsolvedCubes.decrementAndGet() == 0) {
+                        result.complete(Optional.empty());
+                    }
+                    return true;
+                case CubeProtocol.FAILURE:
+                    return false;
+                default:
+                    throw new IOException("Unknown message " + message + " from worker.");
+            }
+        }
+
+        private void cancelRunningCubes() {
+            synchronized (runningCubes) {
+                runningCubes.forEach((output, cube) -> {
+                    try {
+                        synchronized (output) {
+                            output.writeByte(CubeProtocol.CANCEL);
+                            Varints.write(output, cube);
+                            output.flush();
+                        }
+                    } catch (IOException e) {
+                        // the worker went away, so there is nothing left to cancel
+                    }
+                });
+                runningCubes.clear();
+            }
+        }
+
+        private void close(final Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to do about a connection that cannot be closed
+            }
+        }
+    }
+
+    private static class Cube<Type> {
+
+        private final Assignment<Type> assignment;
+
+        private final List<VariableIdentity> variables;
+
+        private final List<Type> values;
+
+        Cube(final Assignment<Type> assignment, final List<VariableIdentity> variables, final List<Type> values) {
+            this.assignment = assignment;
+            this.variables = variables;
+            this.values = values;
+        }
+
+        Cube<Type> extend(final Assignment<Type> successor, final VariableIdentity variable, final Type value) {
+            final List<VariableIdentity> extendedVariables = new ArrayList<>(variables);
+            extendedVariables.add(variable);
+            final List<Type> extendedValues = new ArrayList<>(values);
+            extendedValues.add(value);
+            return new Cube<>(successor, extendedVariables, extendedValues);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mgu.csp;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Defines the wire format that {@link CubeCoordinator} and {@link CubeWorker} use to talk to each other.
+ *
+ * A connection starts off with a handshake, in which the coordinator sends a magic number, the version of the
+ * protocol and the names of all variables of the CSP. Afterwards, variables are referred to by their position in
+ * that list. All integers other than the magic number are written as variable-length quantities (cf.
+ * {@link Varints}), and values are written by a {@link ValueCodec}. The messages are
+ *
+ * <pre>
+ *   CUBE         coordinator to worker   cube id, number of decisions, (variable index, value) per decision
+ *   CANCEL       coordinator to worker   cube id
+ *   SOLUTION     worker to coordinator   cube id, value per variable in index order
+ *   NO_SOLUTION  worker to coordinator   cube id
+ *   FAILURE      worker to coordinator   cube id
+ * </pre>
+ *
+ * A worker answers with {@code FAILURE} if its solver failed on the cube, so that the coordinator is able to hand
+ * the cube to another worker.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+final class CubeProtocol {
+
+    static final int MAGIC = 0x43535043;
+
+    static final int VERSION = 2;
+
+    static final int CUBE = 1;
+
+    static final int CANCEL = 2;
+
+    static final int SOLUTION = 3;
+
+    static final int NO_SOLUTION = 4;
+
+    static final int FAILURE = 5;
+
+    private CubeProtocol() {
+    }
+
+    /**
+     * @return
+     *      the variables of the given {@link Assignment} ordered by their names, which is the order that the
+     *      coordinator announces in the handshake
+     */
+    static List<VariableIdentity> variablesOf(final Assignment<?> assignment) {
+        final List<VariableIdentity> variables = new ArrayList<>(assignment.variableIdentities());
+        variables.sort(Comparator.comparing(VariableIdentity::toString));
+        return variables;
+    }
+
+    static void writeHandshake(final DataOutput output, final List<VariableIdentity> variables) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        Varints.write(output, variables.size());
+        for (VariableIdentity variable : variables) {
+            output.writeUTF(variable.toString());
+        }
+    }
+
+    static List<VariableIdentity> readHandshake(final DataInput input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("The peer does not speak the cube protocol.");
+        }
+        final int version = input.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of the cube protocol.");
+        }
+        final int numberOfVariables = Varints.readInt(input);
+        final List<VariableIdentity> variables = new ArrayList<>(numberOfVariables);
+        for (int variable = 0; variable < numberOfVariables; variable++) {
+            variables.add(VariableIdentity.id(input.readUTF()));
+        }
+        return variables;
+    }
+}
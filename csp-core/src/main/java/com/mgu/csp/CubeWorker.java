@@ -0,0 +1,226 @@
+package com.mgu.csp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves cubes on behalf of a {@link CubeCoordinator}. A worker knows the same CSP as the coordinator, so a cube
+ * only consists of the decisions that lead from the initial assignment of the CSP to the cube. The worker applies
+ * these decisions - with forward checking - and solves the resulting CSP with its own {@link Solver}. It answers
+ * with the solution, if there is one, or with the information that the cube has no solution. If the solver fails
+ * with an exception or an error, e.g. a {@link StackOverflowError}, the worker reports the failure, so that the
+ * coordinator does not wait for the cube in vain. If the coordinator cancels a cube, the worker interrupts the
+ * solver and does not answer at all.
+ *
+ * A worker listens on a server socket and serves one coordinator at a time. It keeps serving coordinators until
+ * it is closed.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class CubeWorker<Type> implements AutoCloseable {
+
+    private final CSP<Type> csp;
+
+    private final Solver<Type> solver;
+
+    private final ValueCodec<Type> codec;
+
+    private final ServerSocket serverSocket;
+
+    /**
+     * @param csp
+     *      the CSP that the coordinator splits into cubes
+     * @param solver
+     *      the solver that is applied to every cube
+     * @param codec
+     *      reads and writes domain values
+     * @param serverSocket
+     *      the socket that the worker accepts coordinators on; it is closed along with the worker
+     */
+    public CubeWorker(final CSP<Type> csp, final Solver<Type> solver, final ValueCodec<Type> codec, final ServerSocket serverSocket) {
+        this.csp = csp;
+        this.solver = solver;
+        this.codec = codec;
+        this.serverSocket = serverSocket;
+    }
+
+    /**
+     * Accepts coordinators and solves their cubes until this worker is closed. This method blocks.
+     *
+     * @throws IOException
+     *      if accepting a coordinator fails for a reason other than this worker being closed
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            try (Socket coordinator = socket) {
+                serve(coordinator);
+            } catch (IOException e) {
+                // the coordinator went away or misbehaved, which must not take the worker down
+            }
+        }
+    }
+
+    private void serve(final Socket coordinator) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+        final Set<Constraint> constraints = csp.constraints();
+        final List<VariableIdentity> variables = CubeProtocol.readHandshake(input);
+        if (!new HashSet<>(variables).equals(initialAssignment.variableIdentities())) {
+            throw new IOException("The coordinator works on a CSP with different variables.");
+        }
+
+        final ExecutorService solverThread = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "csp-cube-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Map<Integer, Future<?>> runningCubes = new HashMap<>();
+        try {
+            while (true) {
+                final int message;
+                try {
+                    message = input.readUnsignedByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                final int cube = Varints.readInt(input);
+                switch (message) {
+                    case CubeProtocol.CUBE:
+                        final List<VariableIdentity> decidedVariables = new ArrayList<>();
+                        final List<Type> decidedValues = new ArrayList<>();
+                        final int numberOfDecisions = Varints.readInt(input);
+                        for (int decision = 0; decision < numberOfDecisions; decision++) {
+                            decidedVariables.add(variables.get(Varints.readInt(input)));
+                            decidedValues.add(codec.read(input));
+                        }
+                        runningCubes.values().removeIf(Future::isDone);
+                        runningCubes.put(cube, solverThread.submit(() -> {
+                            final Optional<Assignment<Type>> solution;
+                            try {
+                                solution = solve(initialAssignment, constraints, decidedVariables, decidedValues);
+                            } catch (Throwable e) {
+                                // a cancelled cube is not answered, any other failure is reported to the coordinator
+                                if (!Thread.currentThread().isInterrupted()) {
+                                    fail(output, cube);
+                                }
+                                return;
+                            }
+                            answer(output, cube, solution, variables);
+                        }));
+                        break;
+                    case CubeProtocol.CANCEL:
+                        final Future<?> runningCube = runningCubes.remove(cube);
+                        if (runningCube != null) {
+                            runningCube.cancel(true);
+                        }
+                        break;
+                    default:
+                        throw new IOException("Unknown message " + message + " from coordinator.");
+                }
+            }
+        } finally {
+            solverThread.shutdownNow();
+        }
+    }
+
+    private Optional<Assignment<Type>> solve(
+            final Assignment<Type> initialAssignment,
+            final Set<Constraint> constraints,
+            final List<VariableIdentity> decidedVariables,
+            final List<Type> decidedValues) {
+        Assignment<Type> cube = initialAssignment;
+        for (int decision = 0; decision < decidedVariables.size(); decision++) {
+            final Variable<Type> variable = cube.variableOf(decidedVariables.get(decision));
+            if (!variable.domain().contains(decidedValues.get(decision))) {
+                return Optional.empty();
+            }
+            cube = cube.assign(variable, decidedValues.get(decision), constraints);
+        }
+        if (!cube.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+        final Assignment<Type> initialAssignmentOfCube = cube;
+        return solver.solve(new CSP<Type>() {
+            @Override
+            protected Assignment<Type> initialAssignment() {
+                return initialAssignmentOfCube;
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return constraints;
+            }
+        });
+    }
+
+    private void answer(
+            final DataOutputStream output,
+            final int cube,
+            final Optional<Assignment<Type>> solution,
+            final List<VariableIdentity> variables) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            synchronized (output) {
+                output.writeByte(solution.isPresent() ? CubeProtocol.SOLUTION : CubeProtocol.NO_SOLUTION);
+                Varints.write(output, cube);
+                if (solution.isPresent()) {
+                    for (VariableIdentity variable : variables) {
+                        codec.write(output, solution.get().valueOf(variable));
+                    }
+                }
+                output.flush();
+            }
+        } catch (IOException e) {
+            // the coordinator went away, which ends the connection on the reading side as well
+        }
+    }
+
+    private void fail(final DataOutputStream output, final int cube) {
+        try {
+            synchronized (output) {
+                output.writeByte(CubeProtocol.FAILURE);
+                Varints.write(output, cube);
+                output.flush();
+            }
+        } catch (IOException e) {
+            // the coordinator went away, which ends the connection on the reading side as well
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mgu.csp;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Performs a depth-bounded discrepancy search. Like {@link LDSSolver}, it favours paths that deviate only rarely
+ * from the {@link ValueOrdering}. In contrast to {@code LDSSolver}, it assumes that heuristics are least reliable
+ * close to the root of the search tree, where they are based on the least information.
+ *
+ * The k-th iteration explores all paths whose deepest discrepancy occurs at depth k - 1: above that depth, every
+ * consistent value is tried; at that depth, every value except the first one is tried; below that depth, only
+ * the first value is tried. Thus, no path is explored twice. The search is complete, unless the maximum depth is
+ * limited explicitly: it terminates as soon as an iteration neither had to cut off a path nor skipped a subtree
+ * that might hold deeper discrepancies.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class DDSSolver<Type> extends AbstractSolver<Type> {
+
+    private final int maximumDepth;
+
+    /**
+     * Uses uninformed heuristics for {@link VariableOrdering} and {@link ValueOrdering} and does not limit
+     * the depth of discrepancies.
+     */
+    public DDSSolver() {
+        this(new VariableOrdering<Type>() {}, new ValueOrdering<Type>() {});
+    }
+
+    /**
+     * Uses the given {@link VariableOrdering} and {@link ValueOrdering} and does not limit the depth of
+     * discrepancies.
+     *
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     */
+    public DDSSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering) {
+        this(variableOrdering, valueOrdering, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     * @param maximumDepth
+     *      the search gives up after the iteration that allows for discrepancies up to this depth
+     */
+    public DDSSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering, final int maximumDepth) {
+        super(variableOrdering, valueOrdering);
+        this.maximumDepth = maximumDepth;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+
+        if (!initialAssignment.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+
+        return traceSolve(() -> iterate(constraints, initialAssignment));
+    }
+
+    private Optional<Assignment<Type>> iterate(final Set<Constraint> constraints, final Assignment<Type> initialAssignment) {
+        for (int iteration = 0; iteration <= maximumDepth; iteration++) {
+            if (iteration > 0) {
+                tracer().restarted(iteration);
+            }
+            final AtomicBoolean cutOff = new AtomicBoolean(false);
+            final Optional<Assignment<Type>> solution = probe(constraints, initialAssignment, 0, iteration, cutOff);
+            if (solution.isPresent() || !cutOff.get()) {
+                return solution;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Assignment<Type>> probe(
+            final Set<Constraint> constraints,
+            final Assignment<Type> assignment,
+            final int depth,
+            final int iteration,
+            final AtomicBoolean cutOff) {
+
+        if (assignment.isSatisfied(constraints)) {
+            return Optional.of(assignment);
+        }
+
+        if (assignment.isComplete()) {
+            return Optional.empty();
+        }
+
+        final Iterator<Assignment<Type>> successors = successors(assignment, constraints).iterator();
+        for (int rank = 0; successors.hasNext(); rank++) {
+            if (depth >= iteration && rank > 0) {
+                cutOff.set(true);
+                break;
+            }
+            final Assignment<Type> successor = successors.next();
+            if (depth == iteration - 1 && rank == 0) {
+                // the heuristic choice has already been explored by a previous iteration, but the subtree below it
+                // may still hold discrepancies at a greater depth
+                cutOff.set(true);
+                continue;
+            }
+            notifyListeners(successor);
+            final Optional<Assignment<Type>> solution = probe(constraints, successor, depth + 1, iteration, cutOff);
+            if (solution.isPresent()) {
+                return solution;
+            }
+        }
+        tracer().backtracked(depthOf(assignment));
+        return Optional.empty();
+    }
+}
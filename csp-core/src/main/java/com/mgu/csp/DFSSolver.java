@@ -1,10 +1,7 @@
 package com.mgu.csp;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 
 /**
  * Performs a backtracking kind of search by progressing along the state space in a depth-first manner.
@@ -20,13 +17,9 @@ import java.util.function.Consumer;
  *
  * @author Markus Günther (markus.guenther@gmail.com)
  */
-public class DFSSolver<Type> {
+public class DFSSolver<Type> extends AbstractSolver<Type> {
 
-    private final List<Consumer<Assignment<Type>>> listeners = new ArrayList<>();
-
-    private final VariableOrdering<Type> variableOrdering;
-
-    private final ValueOrdering<Type> valueOrdering;
+    private int maximumNogoods = 0;
 
     /**
      * Uses uninformed heuristics for {@link VariableOrdering} and {@link ValueOrdering}.
@@ -66,8 +59,7 @@ public class DFSSolver<Type> {
      *      represents a heuristic for ordering domain values
      */
     public DFSSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering) {
-        this.variableOrdering = variableOrdering;
-        this.valueOrdering = valueOrdering;
+        super(variableOrdering, valueOrdering);
     }
 
     /**
@@ -77,37 +69,52 @@ public class DFSSolver<Type> {
      * @param csp
      *      represents the CSP to solve
      * @return
-     *      an {@link Assignment} that is completed, or {@code null} if no such {@link Assignment} can be found
+     *      an {@link Assignment} that is completed, or an empty {@code Optional} if no such {@link Assignment} can be found
      */
+    @Override
     public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
-        return solve(csp, csp.initialAssignment());
+        return traceSolve(() -> solve(csp.constraints(), csp.initialAssignment(), new Nogoods(maximumNogoods, csp.constraints())));
     }
 
-    private Optional<Assignment<Type>> solve(final CSP<Type> csp, final Assignment<Type> assignment) {
+    private Optional<Assignment<Type>> solve(final Set<Constraint> constraints, final Assignment<Type> assignment, final Nogoods nogoods) {
 
-        if (csp.isSatisfied(assignment)) {
+        if (assignment.isSatisfied(constraints)) {
             return Optional.of(assignment);
         }
 
-        final Variable<Type> unassignedVariable = variableOrdering.selectUnassignedVariable(assignment);
-        final Set<Constraint> constraints = csp.constraints();
+        if (assignment.isComplete()) {
+            return Optional.empty();
+        }
 
-        return valueOrdering
-                .orderedDomain(unassignedVariable, constraints)
-                .stream()
-                .map(value -> assignment.assign(unassignedVariable, value, constraints))
-                .filter(csp::isConsistent)
+        final Optional<Assignment<Type>> solution = successors(assignment, constraints)
+                .filter(consistentAssignment -> !nogoods.contains(consistentAssignment))
                 .peek(this::notifyListeners)
-                .map(consistentAssignment -> solve(csp, consistentAssignment))
+                .map(consistentAssignment -> solve(constraints, consistentAssignment, nogoods))
+                .filter(Optional::isPresent)
                 .findFirst()
-                .get();
-    }
+                .orElse(Optional.empty());
 
-    private void notifyListeners(final Assignment<Type> assignment) {
-        listeners.forEach(listener -> listener.accept(assignment));
+        if (!solution.isPresent()) {
+            nogoods.add(assignment);
+            tracer().backtracked(depthOf(assignment));
+        }
+
+        return solution;
     }
 
-    public void addListener(final Consumer<Assignment<Type>> listener) {
-        this.listeners.add(listener);
+    /**
+     * Enables the recording of nogoods during search. Whenever the subtree below an {@link Assignment} has been
+     * exhausted without finding a solution, the residual problem of that {@code Assignment} is recorded, i.e. the
+     * domains of its unassigned variables and the constraints on them. If the search arrives at a state with the
+     * same residual problem again (e.g. after it solved an independent part of the CSP differently), that state
+     * is known to have no solution and is skipped. Nogoods are only valid within a single call to
+     * {@link #solve(CSP)}. Recording is disabled by default.
+     *
+     * @param maximumNogoods
+     *      maximum number of nogoods that are retained per search; least recently used nogoods are dropped
+     *      first, while {@code 0} disables the recording of nogoods
+     */
+    public void recordNogoods(final int maximumNogoods) {
+        this.maximumNogoods = maximumNogoods;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a CSP into the connected components of its constraint graph (cf. {@link ConstraintGraph}) and solves
+ * each component independently using the given {@link Solver}. This prevents a failure within one component
+ * from causing the solver to backtrack over the decisions it made in another, unrelated component. Components
+ * are solved in parallel, unless this is disabled explicitly.
+ *
+ * The solutions of all components are merged into a single {@link Assignment}. If any component has no solution,
+ * the CSP has none either, so the solver stops as soon as it finds such a component: solving sequentially, it does
+ * not start the remaining components, and solving in parallel, it skips the components that have not been started
+ * yet. Components that are already running in parallel are solved to completion, though.
+ *
+ * Please note that listeners of the underlying {@link Solver} are notified about the states of individual
+ * components, possibly from multiple threads at once. Components that are solved in parallel run on the common
+ * {@link java.util.concurrent.ForkJoinPool}. Interrupting the thread that calls {@link #solve(CSP)} thus does not
+ * abort the components that run on other threads (cf. {@link SolverService}).
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class DecomposingSolver<Type> implements Solver<Type> {
+
+    private final Solver<Type> solver;
+
+    private final boolean parallel;
+
+    /**
+     * Solves the components of a CSP in parallel using the given {@link Solver}.
+     *
+     * @param solver
+     *      the solver that is applied to every component
+     */
+    public DecomposingSolver(final Solver<Type> solver) {
+        this(solver, true);
+    }
+
+    /**
+     * @param solver
+     *      the solver that is applied to every component
+     * @param parallel
+     *      {@code true} if the components ought to be solved in parallel, {@code false} otherwise
+     */
+    public DecomposingSolver(final Solver<Type> solver, final boolean parallel) {
+        this.solver = solver;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Solves the given CSP by solving each of the connected components of its constraint graph separately.
+     *
+     * @param csp
+     *      represents the CSP to solve
+     * @return
+     *      an {@link Assignment} that is completed, or an empty {@code Optional} if no such {@link Assignment}
+     *      can be found
+     */
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+        final Set<Constraint> constraints = csp.constraints();
+
+        if (!csp.isConsistent(initialAssignment)) {
+            return Optional.empty();
+        }
+
+        final List<Set<VariableIdentity>> components = ConstraintGraph.connectedComponents(initialAssignment, constraints);
+        final List<Set<Constraint>> constraintsOfComponents = constraintsOf(components, constraints);
+        final List<Optional<Assignment<Type>>> solutions = new ArrayList<>();
+        if (parallel) {
+            // components that have not been started yet are skipped once some component turned out to be unsolvable
+            final AtomicBoolean unsolvable = new AtomicBoolean(false);
+            IntStream.range(0, components.size())
+                    .parallel()
+                    .mapToObj(component -> {
+                        if (unsolvable.get()) {
+                            return Optional.<Assignment<Type>>empty();
+                        }
+                        final Optional<Assignment<Type>> solution = solver.solve(componentOf(
+                                components.get(component),
+                                constraintsOfComponents.get(component),
+                                initialAssignment));
+                        if (!solution.isPresent()) {
+                            unsolvable.set(true);
+                        }
+                        return solution;
+                    })
+                    .forEachOrdered(solutions::add);
+        } else {
+            for (int component = 0; component < components.size(); component++) {
+                final Optional<Assignment<Type>> solution = solver.solve(componentOf(
+                        components.get(component),
+                        constraintsOfComponents.get(component),
+                        initialAssignment));
+                if (!solution.isPresent()) {
+                    return Optional.empty();
+                }
+                solutions.add(solution);
+            }
+        }
+
+        if (solutions.stream().anyMatch(solution -> !solution.isPresent())) {
+            return Optional.empty();
+        }
+
+        final Assignment<Type> solution = solutions
+                .stream()
+                .map(Optional::get)
+                .reduce(initialAssignment, Assignment::merge);
+        return csp.isSatisfied(solution) ? Optional.of(solution) : Optional.empty();
+    }
+
+    /**
+     * Assigns every constraint to the component of the unassigned variables it relies on. Constraints that rely on
+     * assigned variables only belong to no component.
+     */
+    private static List<Set<Constraint>> constraintsOf(final List<Set<VariableIdentity>> components, final Set<Constraint> constraints) {
+        final Map<VariableIdentity, Integer> componentOfVariable = new HashMap<>();
+        final List<Set<Constraint>> constraintsOfComponents = new ArrayList<>();
+        for (int component = 0; component < components.size(); component++) {
+            for (VariableIdentity variable : components.get(component)) {
+                componentOfVariable.put(variable, component);
+            }
+            constraintsOfComponents.add(new HashSet<>());
+        }
+        for (Constraint constraint : constraints) {
+            for (VariableIdentity variable : constraint.reliesOn()) {
+                final Integer component = componentOfVariable.get(variable);
+                if (component != null) {
+                    // all unassigned variables of a constraint belong to the same component
+                    constraintsOfComponents.get(component).add(constraint);
+                    break;
+                }
+            }
+        }
+        return constraintsOfComponents;
+    }
+
+    private CSP<Type> componentOf(
+            final Set<VariableIdentity> component,
+            final Set<Constraint> constraints,
+            final Assignment<Type> initialAssignment) {
+        final Set<Constraint> constraintsOfComponent = Collections.unmodifiableSet(constraints);
+        final Set<VariableIdentity> variablesOfComponent = new HashSet<>(component);
+        constraintsOfComponent.forEach(constraint -> variablesOfComponent.addAll(constraint.reliesOn()));
+        final Assignment<Type> assignmentOfComponent = initialAssignment.restrictTo(variablesOfComponent);
+        return new CSP<Type>() {
+            @Override
+            protected Assignment<Type> initialAssignment() {
+                return assignmentOfComponent;
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return constraintsOfComponent;
+            }
+        };
+    }
+}
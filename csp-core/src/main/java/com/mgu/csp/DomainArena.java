@@ -0,0 +1,356 @@
+package com.mgu.csp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Off-heap store for the domains of the variables of a CSP and the trail that allows for undoing changes to them.
+ * Variables and values are referred to by their index. The domain of a variable is encoded as a bitset over the
+ * value indices, while the assigned value of a variable is encoded as a single word that holds either the value
+ * index or {@code -1}. Every change to a word is recorded on the trail together with its previous content, so that
+ * backtracking to a given {@link #mark()} restores the state at that point in time. The arena keeps the size of
+ * every domain along with its bitset. Sizes are not recorded on the trail, though: every change to a domain word,
+ * whether it is made or undone, adjusts the size of its domain by the difference in the number of bits, so that
+ * {@link #size(int)} takes constant time.
+ *
+ * All data lives in a single direct {@link ByteBuffer} that is allocated once per solve. Thus, the store puts
+ * neither objects on the heap nor pressure on the garbage collector while the search is running. Callers that run
+ * many small searches of the same size {@link #reset()} an arena instead of allocating a new one. Closing the arena
+ * drops its only reference to the buffer, but the native memory is not returned before the garbage collector has
+ * collected that buffer object. Releasing it is thus timed by the collector rather than by {@link #close()}, and
+ * arenas that are allocated at a high rate can run into the limit on direct memory
+ * ({@code -XX:MaxDirectMemorySize}) while their predecessors are still waiting to be collected.
+ *
+ * The domain of every variable is a bitset over all distinct values of the CSP, not only over the values of that
+ * variable, and the trail is sized for the worst case of removing every value from every domain along a single
+ * path. An arena thus occupies about {@code numberOfVariables * numberOfValues * 16} bytes, which has to stay
+ * below the maximum size of a buffer of 2 GB (cf. {@link #allocate(int, int)}). For instance, 9,000 variables
+ * over 9,000 distinct values already need 1.3 GB. The arena suits CSPs whose variables range over a common set
+ * of values, like Sudoku or graph coloring. CSPs whose variables each range over a few out of many distinct
+ * values are better served by the heap-based solvers.
+ *
+ * This class is not thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class DomainArena implements AutoCloseable {
+
+    private static final int BYTES_PER_WORD = Long.BYTES;
+
+    private static final int BYTES_PER_TRAIL_ENTRY = 2 * Long.BYTES;
+
+    private static final long UNASSIGNED = -1L;
+
+    private final int numberOfVariables;
+
+    private final int numberOfValues;
+
+    private final int wordsPerVariable;
+
+    private final int assignmentsOffset;
+
+    private final int sizesOffset;
+
+    private final int trailOffset;
+
+    private final int trailCapacity;
+
+    private ByteBuffer buffer;
+
+    private int trailSize = 0;
+
+    private DomainArena(final int numberOfVariables, final int numberOfValues) {
+        this.numberOfVariables = numberOfVariables;
+        this.numberOfValues = numberOfValues;
+        this.wordsPerVariable = (numberOfValues + Long.SIZE - 1) / Long.SIZE;
+        // along a single path, every value can be removed from every domain once and every variable can be assigned once
+        final long trailCapacity = (long) numberOfVariables * numberOfValues + (long) numberOfVariables * (wordsPerVariable + 1);
+        final long domainBytes = (long) numberOfVariables * wordsPerVariable * BYTES_PER_WORD;
+        final long assignmentBytes = (long) numberOfVariables * BYTES_PER_WORD;
+        final long sizeBytes = ((long) numberOfVariables * Integer.BYTES + BYTES_PER_WORD - 1) / BYTES_PER_WORD * BYTES_PER_WORD;
+        final long totalBytes = domainBytes + assignmentBytes + sizeBytes + trailCapacity * BYTES_PER_TRAIL_ENTRY;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A domain arena for " + numberOfVariables + " variables with " +
+                                               numberOfValues + " values each exceeds the maximum size of a buffer.");
+        }
+        this.assignmentsOffset = (int) domainBytes;
+        this.sizesOffset = (int) (domainBytes + assignmentBytes);
+        this.trailOffset = (int) (domainBytes + assignmentBytes + sizeBytes);
+        this.trailCapacity = (int) trailCapacity;
+        this.buffer = ByteBuffer.allocateDirect((int) totalBytes).order(ByteOrder.nativeOrder());
+        for (int variable = 0; variable < numberOfVariables; variable++) {
+            buffer.putLong(assignmentOffsetOf(variable), UNASSIGNED);
+        }
+    }
+
+    /**
+     * Adds the given value to the domain of the given variable. This is meant for setting up the initial state and
+     * is not recorded on the trail.
+     *
+     * @param variable
+     *      index of the variable
+     * @param value
+     *      index of the value
+     */
+    public void initialize(final int variable, final int value) {
+        final int offset = domainOffsetOf(variable, value);
+        final long word = buffer.getLong(offset);
+        if ((word & bitOf(value)) == 0) {
+            buffer.putLong(offset, word | bitOf(value));
+            resize(variable, 1);
+        }
+    }
+
+    /**
+     * Adds the values of the given bitset to the domain of the given variable, where bit {@code i} of the bitset
+     * stands for the value index {@code firstValue + i}. This copies a whole domain a word at a time, which is
+     * meant for setting up the initial state and is not recorded on the trail.
+     *
+     * @param variable
+     *      index of the variable
+     * @param firstValue
+     *      index of the value that the lowest bit of the bitset stands for
+     * @param bits
+     *      the values to add, which must lie within the range of value indices of this arena
+     */
+    public void initialize(final int variable, final int firstValue, final long[] bits) {
+        final int shift = firstValue % Long.SIZE;
+        int word = firstValue / Long.SIZE;
+        for (long source : bits) {
+            if (source != 0) {
+                initializeWord(variable, word, source << shift);
+                if (shift != 0) {
+                    initializeWord(variable, word + 1, source >>> (Long.SIZE - shift));
+                }
+            }
+            word++;
+        }
+    }
+
+    private void initializeWord(final int variable, final int word, final long bits) {
+        if (bits == 0) {
+            return;
+        }
+        final int offset = wordOffsetOf(variable, word);
+        final long previousBits = buffer.getLong(offset);
+        buffer.putLong(offset, previousBits | bits);
+        resize(variable, Long.bitCount(previousBits | bits) - Long.bitCount(previousBits));
+    }
+
+    public boolean contains(final int variable, final int value) {
+        return (buffer.getLong(domainOffsetOf(variable, value)) & bitOf(value)) != 0;
+    }
+
+    /**
+     * @param variable
+     *      index of the variable
+     * @return
+     *      number of values in the domain of the given variable
+     */
+    public int size(final int variable) {
+        return buffer.getInt(sizeOffsetOf(variable));
+    }
+
+    /**
+     * @param variable
+     *      index of the variable
+     * @param from
+     *      index of the value to start searching from (inclusive)
+     * @return
+     *      the smallest value index in the domain of the given variable that is greater than or equal to
+     *      {@code from}, or {@code -1} if there is no such value
+     */
+    public int nextValue(final int variable, final int from) {
+        if (from >= numberOfValues) {
+            return -1;
+        }
+        int word = from / Long.SIZE;
+        long bits = buffer.getLong(wordOffsetOf(variable, word)) & (-1L << (from % Long.SIZE));
+        while (true) {
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == wordsPerVariable) {
+                return -1;
+            }
+            bits = buffer.getLong(wordOffsetOf(variable, word));
+        }
+    }
+
+    /**
+     * Removes the given value from the domain of the given variable and records the change on the trail.
+     *
+     * @param variable
+     *      index of the variable
+     * @param value
+     *      index of the value
+     * @return
+     *      {@code true} if the domain contained the value, {@code false} otherwise
+     */
+    public boolean remove(final int variable, final int value) {
+        final int offset = domainOffsetOf(variable, value);
+        final long word = buffer.getLong(offset);
+        if ((word & bitOf(value)) == 0) {
+            return false;
+        }
+        write(offset, word & ~bitOf(value));
+        return true;
+    }
+
+    /**
+     * Assigns the given value to the given variable, which reduces its domain to that value. Both changes are
+     * recorded on the trail.
+     *
+     * @param variable
+     *      index of the variable
+     * @param value
+     *      index of the value
+     */
+    public void assign(final int variable, final int value) {
+        for (int word = 0; word < wordsPerVariable; word++) {
+            final long bits = word == value / Long.SIZE ? bitOf(value) : 0L;
+            final int offset = wordOffsetOf(variable, word);
+            if (buffer.getLong(offset) != bits) {
+                write(offset, bits);
+            }
+        }
+        write(assignmentOffsetOf(variable), value);
+    }
+
+    /**
+     * @param variable
+     *      index of the variable
+     * @return
+     *      index of the value that is assigned to the given variable, or {@code -1} if it is unassigned
+     */
+    public int assignedValue(final int variable) {
+        return (int) buffer.getLong(assignmentOffsetOf(variable));
+    }
+
+    public boolean isAssigned(final int variable) {
+        return assignedValue(variable) != UNASSIGNED;
+    }
+
+    /**
+     * @return
+     *      the current position of the trail, which {@link #undo(int)} is able to return to
+     */
+    public int mark() {
+        return trailSize;
+    }
+
+    /**
+     * Undoes all changes that have been recorded on the trail since the given mark, in reverse order.
+     *
+     * @param mark
+     *      position of the trail as returned by {@link #mark()}
+     */
+    public void undo(final int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            final int entry = trailOffset + trailSize * BYTES_PER_TRAIL_ENTRY;
+            final int offset = (int) buffer.getLong(entry);
+            final long previousValue = buffer.getLong(entry + BYTES_PER_WORD);
+            if (offset < assignmentsOffset) {
+                resize(offset / (wordsPerVariable * BYTES_PER_WORD), Long.bitCount(previousValue) - Long.bitCount(buffer.getLong(offset)));
+            }
+            buffer.putLong(offset, previousValue);
+        }
+    }
+
+    /**
+     * Empties all domains, unassigns all variables and clears the trail, so that the arena can be reused for
+     * another search over the same number of variables and values without allocating native memory again.
+     */
+    public void reset() {
+        for (int offset = 0; offset < assignmentsOffset; offset += BYTES_PER_WORD) {
+            buffer.putLong(offset, 0L);
+        }
+        for (int variable = 0; variable < numberOfVariables; variable++) {
+            buffer.putLong(assignmentOffsetOf(variable), UNASSIGNED);
+            buffer.putInt(sizeOffsetOf(variable), 0);
+        }
+        trailSize = 0;
+    }
+
+    public int numberOfVariables() {
+        return numberOfVariables;
+    }
+
+    public int numberOfValues() {
+        return numberOfValues;
+    }
+
+    /**
+     * @return
+     *      number of bytes of native memory that this arena occupies
+     */
+    public int allocatedBytes() {
+        return buffer == null ? 0 : buffer.capacity();
+    }
+
+    /**
+     * Drops the reference to the buffer of this arena. The native memory is returned once the garbage collector
+     * has collected the buffer, which may happen considerably later. The arena must not be used after closing it.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    private void write(final int offset, final long value) {
+        if (trailSize == trailCapacity) {
+            throw new IllegalStateException("The trail of the domain arena is exhausted.");
+        }
+        final int entry = trailOffset + trailSize * BYTES_PER_TRAIL_ENTRY;
+        final long previousValue = buffer.getLong(offset);
+        buffer.putLong(entry, offset);
+        buffer.putLong(entry + BYTES_PER_WORD, previousValue);
+        trailSize++;
+        buffer.putLong(offset, value);
+        if (offset < assignmentsOffset) {
+            resize(offset / (wordsPerVariable * BYTES_PER_WORD), Long.bitCount(value) - Long.bitCount(previousValue));
+        }
+    }
+
+    private void resize(final int variable, final int difference) {
+        final int offset = sizeOffsetOf(variable);
+        buffer.putInt(offset, buffer.getInt(offset) + difference);
+    }
+
+    private int domainOffsetOf(final int variable, final int value) {
+        return wordOffsetOf(variable, value / Long.SIZE);
+    }
+
+    private int wordOffsetOf(final int variable, final int word) {
+        return (variable * wordsPerVariable + word) * BYTES_PER_WORD;
+    }
+
+    private int assignmentOffsetOf(final int variable) {
+        return assignmentsOffset + variable * BYTES_PER_WORD;
+    }
+
+    private int sizeOffsetOf(final int variable) {
+        return sizesOffset + variable * Integer.BYTES;
+    }
+
+    private static long bitOf(final int value) {
+        return 1L << (value % Long.SIZE);
+    }
+
+    /**
+     * Allocates an arena for the given number of variables and values. All domains are empty initially.
+     *
+     * @param numberOfVariables
+     *      number of variables of the CSP
+     * @param numberOfValues
+     *      number of distinct values across all domains of the CSP
+     * @return
+     *      a new {@code DomainArena}
+     * @throws IllegalArgumentException
+     *      if the arena would exceed the maximum size of a buffer
+     */
+    public static DomainArena allocate(final int numberOfVariables, final int numberOfValues) {
+        return new DomainArena(numberOfVariables, numberOfValues);
+    }
+}
@@ -0,0 +1,163 @@
+package com.mgu.csp;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@code Fingerprint} is a 128-bit canonical hash of the state of a CSP. It does not depend on the iteration
+ * order of variables, domain values or constraints, since the hashes of the individual parts are combined using
+ * a commutative operation after they have been mixed thoroughly. Two states that contain the same variables with
+ * the same domains (or assigned values) and the same constraints yield the same {@code Fingerprint}, regardless
+ * of the order in which they were constructed. Constraints are told apart by their own {@code equals} and
+ * {@code hashCode}, so constraints that do not implement them are only equal to themselves.
+ *
+ * The parts of the state enter the hash by means of their {@code hashCode}, so different states may well yield
+ * the same 128 bits. Thus, a {@code Fingerprint} retains the state it has been computed from, and two
+ * fingerprints are only equal if their states are equal, too. The hash merely makes lookups fast: a collision
+ * costs a comparison of both states, but it never lets a cache or a nogood store mistake one state for another.
+ *
+ * This class is immutable.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class Fingerprint {
+
+    private static final long SEED_OF_HIGH_LANE = 0x9E3779B97F4A7C15L;
+
+    private static final long SEED_OF_LOW_LANE = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long ASSIGNED = 0x27BB2EE687B0B0FDL;
+
+    private final long high;
+
+    private final long low;
+
+    private final Assignment<?> assignment;
+
+    private final Set<Constraint> constraints;
+
+    private Fingerprint(final long high, final long low, final Assignment<?> assignment, final Set<Constraint> constraints) {
+        this.high = high;
+        this.low = low;
+        this.assignment = assignment;
+        this.constraints = constraints;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Fingerprint that = (Fingerprint) o;
+
+        return high == that.high &&
+               low == that.low &&
+               Objects.equals(constraints, that.constraints) &&
+               sameState(assignment, that.assignment);
+    }
+
+    private static boolean sameState(final Assignment<?> assignment, final Assignment<?> other) {
+        if (assignment == other) {
+            return true;
+        }
+        if (!assignment.variableIdentities().equals(other.variableIdentities())) {
+            return false;
+        }
+        for (VariableIdentity variableIdentity : assignment.variableIdentities()) {
+            final Variable<?> variable = assignment.variableOf(variableIdentity);
+            final Variable<?> otherVariable = other.variableOf(variableIdentity);
+            if (variable.isAssigned() != otherVariable.isAssigned()) {
+                return false;
+            }
+            if (variable.isAssigned()
+                    ? !variable.valueOf().equals(otherVariable.valueOf())
+                    : !variable.domain().equals(otherVariable.domain())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (high ^ (high >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * @param assignment
+     *      represents the state of a CSP
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      {@code Fingerprint} of the state of all variables of the given {@link Assignment}
+     */
+    public static <Type> Fingerprint of(final Assignment<Type> assignment) {
+        return new Fingerprint(
+                hashOf(assignment, SEED_OF_HIGH_LANE),
+                hashOf(assignment, SEED_OF_LOW_LANE),
+                assignment,
+                null);
+    }
+
+    /**
+     * @param assignment
+     *      represents the state of a CSP
+     * @param constraints
+     *      {@code Set} of {@link Constraint}s of the CSP
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      {@code Fingerprint} of both the state of all variables of the given {@link Assignment} and the
+     *      constraint network
+     */
+    public static <Type> Fingerprint of(final Assignment<Type> assignment, final Set<Constraint> constraints) {
+        return new Fingerprint(
+                mix(hashOf(assignment, SEED_OF_HIGH_LANE) + mix(hashOf(constraints, SEED_OF_HIGH_LANE))),
+                mix(hashOf(assignment, SEED_OF_LOW_LANE) + mix(hashOf(constraints, SEED_OF_LOW_LANE))),
+                assignment,
+                new HashSet<>(constraints));
+    }
+
+    private static <Type> long hashOf(final Assignment<Type> assignment, final long seed) {
+        long hash = seed;
+        for (VariableIdentity variableIdentity : assignment.variableIdentities()) {
+            hash += mix(mix(seed ^ variableIdentity.hashCode()) + hashOf(assignment.variableOf(variableIdentity), seed));
+        }
+        return hash;
+    }
+
+    private static <Type> long hashOf(final Variable<Type> variable, final long seed) {
+        if (variable.isAssigned()) {
+            return mix(seed ^ ASSIGNED ^ mix(variable.valueOf().hashCode()));
+        }
+        long hash = seed;
+        for (Type value : variable.domain()) {
+            hash += mix(seed + value.hashCode());
+        }
+        return hash;
+    }
+
+    private static long hashOf(final Set<Constraint> constraints, final long seed) {
+        long hash = seed;
+        for (Constraint constraint : constraints) {
+            hash += mix(mix(seed ^ constraint.getClass().getName().hashCode()) + mix(seed + constraint.hashCode()));
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizer of the SplitMix64 generator, which scatters the bits of its input over the whole word.
+     */
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
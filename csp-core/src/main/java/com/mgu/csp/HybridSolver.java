@@ -0,0 +1,44 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+
+/**
+ * Combines a {@link LocalSearchSolver} with a complete {@link DFSSolver}. The local search runs first. If it finds
+ * a solution, that solution is returned right away. Otherwise, the best assignment of the local search seeds the
+ * value ordering of the {@code DFSSolver} (cf. {@link SeededValueOrdering}), which then either finds a solution in
+ * the vicinity of that assignment or proves that there is none.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class HybridSolver<Type> implements Solver<Type> {
+
+    private final LocalSearchSolver<Type> localSearch;
+
+    private final VariableOrdering<Type> variableOrdering;
+
+    /**
+     * @param localSearch
+     *      the local search that runs first
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable during the complete search
+     */
+    public HybridSolver(final LocalSearchSolver<Type> localSearch, final VariableOrdering<Type> variableOrdering) {
+        this.localSearch = localSearch;
+        this.variableOrdering = variableOrdering;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Optional<Assignment<Type>> best = localSearch.search(csp);
+        if (!best.isPresent()) {
+            return Optional.empty();
+        }
+        if (csp.isSatisfied(best.get())) {
+            return best;
+        }
+        return new DFSSolver<>(variableOrdering, new SeededValueOrdering<>(best.get())).solve(csp);
+    }
+}
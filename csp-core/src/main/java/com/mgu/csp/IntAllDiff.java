@@ -0,0 +1,51 @@
+package com.mgu.csp;
+
+import java.util.Arrays;
+
+/**
+ * The values of all variables of this constraint must be pairwise different. Assigning a value to one of them
+ * removes that value from the domains of all others, which corresponds to forward checking an {@link AllDiff}.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class IntAllDiff implements IntConstraint {
+
+    private final int[] scope;
+
+    public IntAllDiff(final int... scope) {
+        this.scope = Arrays.copyOf(scope, scope.length);
+    }
+
+    @Override
+    public int[] scope() {
+        return scope;
+    }
+
+    @Override
+    public boolean propagate(final IntDomains domains, final int assignedVariable) {
+        final int value = domains.valueOf(assignedVariable);
+        for (int variable : scope) {
+            // the domain of an assigned variable holds nothing but its value, so it holds the value that has just
+            // been assigned only if both variables are assigned to the same value
+            if (variable != assignedVariable && domains.remove(variable, value) && domains.isAssigned(variable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSatisfied(final IntDomains domains) {
+        final int[] values = new int[scope.length];
+        for (int position = 0; position < scope.length; position++) {
+            values[position] = domains.valueOf(scope[position]);
+        }
+        Arrays.sort(values);
+        for (int position = 1; position < values.length; position++) {
+            if (values[position - 1] == values[position]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
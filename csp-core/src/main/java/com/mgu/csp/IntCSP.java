@@ -0,0 +1,184 @@
+package com.mgu.csp;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Abstract base class for CSPs over integers that are solved without boxing their values (cf. {@link IntSolver}).
+ * It is the primitive counterpart of {@link CSP}: variables are {@link IntVariable}s whose domains are bitsets,
+ * and constraints are {@link IntConstraint}s that refer to variables by their position in {@link #variables()}.
+ *
+ * A {@code CSP<Integer>} can be converted into an {@code IntCSP} (cf. {@link #of(CSP)}).
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+abstract public class IntCSP {
+
+    /**
+     * @return
+     *      Yields the variables of this CSP along with their initial domains
+     */
+    abstract protected List<IntVariable> variables();
+
+    /**
+     * @return
+     *      Yields the constraints of this CSP
+     */
+    abstract protected List<IntConstraint> constraints();
+
+    /**
+     * Converts the given CSP into an {@code IntCSP}. The variables are taken from the initial assignment of the
+     * CSP and keep the names of their identities. {@link AllDiff} constraints are converted into
+     * {@link IntAllDiff}s, while all other constraints are wrapped, which boxes the values of their variables
+     * whenever they are checked.
+     *
+     * @param csp
+     *      the CSP that ought to be converted
+     * @return
+     *      an {@code IntCSP} that has the same solutions as the given CSP
+     * @throws IllegalArgumentException
+     *      if some unassigned variable has no domain values left, or if some constraint relies on a variable that
+     *      is not part of the initial assignment of the CSP
+     */
+    public static IntCSP of(final CSP<Integer> csp) {
+        final Assignment<Integer> initialAssignment = csp.initialAssignment();
+        final List<IntVariable> variables = new ArrayList<>();
+        final List<VariableIdentity> identities = new ArrayList<>();
+        final Map<VariableIdentity, Integer> positionOf = new HashMap<>();
+        for (VariableIdentity identity : initialAssignment.variableIdentities()) {
+            final Variable<Integer> variable = initialAssignment.variableOf(identity);
+            positionOf.put(identity, variables.size());
+            identities.add(identity);
+            variables.add(variable.isAssigned()
+                    ? IntVariable.fixed(identity.toString(), variable.valueOf())
+                    : IntVariable.of(identity.toString(), variable.domain().stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        final List<IntConstraint> constraints = new ArrayList<>();
+        for (Constraint constraint : csp.constraints()) {
+            final int[] scope = scopeOf(constraint, positionOf);
+            constraints.add(constraint instanceof AllDiff
+                    ? new IntAllDiff(scope)
+                    : new BoxingConstraint(constraint, scope, identities));
+        }
+
+        return new IntCSP() {
+            @Override
+            protected List<IntVariable> variables() {
+                return variables;
+            }
+
+            @Override
+            protected List<IntConstraint> constraints() {
+                return constraints;
+            }
+        };
+    }
+
+    /**
+     * @return
+     *      the positions of the variables that the given constraint relies on
+     * @throws IllegalArgumentException
+     *      if the constraint relies on a variable that has no position
+     */
+    static int[] scopeOf(final Constraint constraint, final Map<VariableIdentity, Integer> positionOf) {
+        final int[] scope = new int[constraint.reliesOn().size()];
+        int index = 0;
+        for (VariableIdentity identity : constraint.reliesOn()) {
+            final Integer position = positionOf.get(identity);
+            if (position == null) {
+                throw new IllegalArgumentException("Constraint " + constraint.getClass().getSimpleName() + " relies on " +
+                                                   "variable " + identity + ", which is not part of the initial assignment.");
+            }
+            scope[index++] = position;
+        }
+        return scope;
+    }
+
+    /**
+     * Checks a generic {@link Constraint} by materializing the current state of its variables.
+     */
+    private static class BoxingConstraint implements IntConstraint {
+
+        private final Constraint constraint;
+
+        private final int[] scope;
+
+        private final List<VariableIdentity> identities;
+
+        BoxingConstraint(final Constraint constraint, final int[] scope, final List<VariableIdentity> identities) {
+            this.constraint = constraint;
+            this.scope = scope;
+            this.identities = identities;
+        }
+
+        @Override
+        public int[] scope() {
+            return scope;
+        }
+
+        @Override
+        public boolean propagate(final IntDomains domains, final int assignedVariable) {
+            return constraint.isConsistent(new Scope(domains));
+        }
+
+        @Override
+        public boolean isSatisfied(final IntDomains domains) {
+            return constraint.isSatisfied(new Scope(domains));
+        }
+
+        private class Scope extends AbstractSet<Variable<Integer>> {
+
+            private final IntDomains domains;
+
+            Scope(final IntDomains domains) {
+                this.domains = domains;
+            }
+
+            @Override
+            public Iterator<Variable<Integer>> iterator() {
+                return new Iterator<Variable<Integer>>() {
+
+                    private int position = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < scope.length;
+                    }
+
+                    @Override
+                    public Variable<Integer> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return materialize(scope[position++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return scope.length;
+            }
+
+            private Variable<Integer> materialize(final int variable) {
+                final VariableIdentity identity = identities.get(variable);
+                if (domains.isAssigned(variable)) {
+                    return Variable.assignedVariable(identity, domains.valueOf(variable));
+                }
+                final Set<Integer> domain = new LinkedHashSet<>();
+                for (int value = domains.nextValue(variable, Integer.MIN_VALUE); value != Integer.MAX_VALUE; value = domains.nextValue(variable, value + 1)) {
+                    domain.add(value);
+                }
+                return Variable.unassignedVariable(identity, domain);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mgu.csp;
+
+/**
+ * A constraint of an {@link IntCSP}. In contrast to {@link Constraint}, it operates on primitive values and prunes
+ * the domains of its variables itself: whenever the search assigns a value to one of its variables, the constraint
+ * removes the values of the other variables that are no longer supported.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public interface IntConstraint {
+
+    /**
+     * @return
+     *      positions of the variables that this constraint relies on
+     */
+    int[] scope();
+
+    /**
+     * Propagates the assignment of the given variable to the other variables of this constraint.
+     *
+     * @param domains
+     *      the current domains of all variables
+     * @param assignedVariable
+     *      position of the variable of this constraint that has just been assigned
+     * @return
+     *      {@code false} if the constraint can no longer be satisfied, {@code true} otherwise
+     */
+    boolean propagate(IntDomains domains, int assignedVariable);
+
+    /**
+     * @param domains
+     *      the current domains of all variables, all of which have been assigned
+     * @return
+     *      {@code true} if the assigned values satisfy this constraint, {@code false} otherwise
+     */
+    boolean isSatisfied(IntDomains domains);
+}
@@ -0,0 +1,125 @@
+package com.mgu.csp;
+
+/**
+ * The current domains of the variables of an {@link IntCSP} during a search by {@link IntSolver}. This is the
+ * view that {@link IntConstraint}s prune. Variables are referred to by their position in
+ * {@link IntCSP#variables()}, values by themselves. Every change is recorded on the trail of the underlying
+ * {@link DomainArena}, so the search undoes it on backtracking.
+ *
+ * This class is not thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public final class IntDomains {
+
+    private final DomainArena arena;
+
+    private final int offset;
+
+    private final int numberOfValues;
+
+    private final int[] changedVariables;
+
+    private final boolean[] isChanged;
+
+    private int numberOfChangedVariables = 0;
+
+    IntDomains(final DomainArena arena, final int offset, final int numberOfValues) {
+        this.arena = arena;
+        this.offset = offset;
+        this.numberOfValues = numberOfValues;
+        this.changedVariables = new int[arena.numberOfVariables()];
+        this.isChanged = new boolean[arena.numberOfVariables()];
+    }
+
+    public boolean contains(final int variable, final int value) {
+        final long index = (long) value - offset;
+        return index >= 0 && index < numberOfValues && arena.contains(variable, (int) index);
+    }
+
+    /**
+     * @return
+     *      number of values in the domain of the given variable
+     */
+    public int size(final int variable) {
+        return arena.size(variable);
+    }
+
+    /**
+     * @return
+     *      {@code true} if the search has assigned a value to the given variable
+     */
+    public boolean isAssigned(final int variable) {
+        return arena.isAssigned(variable);
+    }
+
+    /**
+     * @return
+     *      the value that the search has assigned to the given variable
+     * @throws IllegalStateException
+     *      if the variable is unassigned
+     */
+    public int valueOf(final int variable) {
+        final int index = arena.assignedValue(variable);
+        if (index == -1) {
+            throw new IllegalStateException("Variable " + variable + " has not been assigned a value.");
+        }
+        return offset + index;
+    }
+
+    /**
+     * @param variable
+     *      position of the variable
+     * @param from
+     *      the value to start searching from (inclusive)
+     * @return
+     *      the smallest value in the domain of the given variable that is greater than or equal to {@code from},
+     *      or {@code Integer.MAX_VALUE} if there is no such value (thus, domains must not contain
+     *      {@code Integer.MAX_VALUE} itself)
+     */
+    public int nextValue(final int variable, final int from) {
+        final long index = Math.max(0L, (long) from - offset);
+        if (index >= numberOfValues) {
+            return Integer.MAX_VALUE;
+        }
+        final int next = arena.nextValue(variable, (int) index);
+        return next == -1 ? Integer.MAX_VALUE : offset + next;
+    }
+
+    /**
+     * Removes the given value from the domain of the given variable.
+     *
+     * @return
+     *      {@code true} if the domain contained the value, {@code false} otherwise
+     */
+    public boolean remove(final int variable, final int value) {
+        final long index = (long) value - offset;
+        if (index < 0 || index >= numberOfValues || !arena.remove(variable, (int) index)) {
+            return false;
+        }
+        if (!isChanged[variable]) {
+            isChanged[variable] = true;
+            changedVariables[numberOfChangedVariables++] = variable;
+        }
+        return true;
+    }
+
+    /**
+     * The search only inspects the variables whose domains a constraint has actually reduced, instead of the whole
+     * scope of the constraint. These are recorded since the last call to {@link #clearChangedVariables()}.
+     */
+    int numberOfChangedVariables() {
+        return numberOfChangedVariables;
+    }
+
+    int changedVariable(final int position) {
+        return changedVariables[position];
+    }
+
+    void clearChangedVariables() {
+        for (int position = 0; position < numberOfChangedVariables; position++) {
+            isChanged[changedVariables[position]] = false;
+        }
+        numberOfChangedVariables = 0;
+    }
+}
@@ -0,0 +1,363 @@
+package com.mgu.csp;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Solves {@link IntCSP}s by a depth-first search that works on primitive values only. The domains of all variables
+ * live in a {@link DomainArena}, and backtracking undoes its trail, just like {@link ArenaSolver} does. The
+ * {@link IntConstraint}s propagate every assignment to the other variables they rely on, and a variable whose
+ * domain is reduced to a single value is assigned right away. The solver always picks the unassigned variable with
+ * the fewest remaining values and tries values in ascending order. Besides finding a solution, the solver counts
+ * solutions up to a given limit (cf. {@link #count(IntCSP, int)}), which tells whether a CSP has a unique solution.
+ *
+ * Counting is meant to be called many times in a row, e.g. by a puzzle generator that checks the uniqueness of a
+ * puzzle after every removed given. Therefore, the solver keeps a workspace per thread that holds the
+ * {@link DomainArena} and the arrays of the search. A count resets the workspace of its thread instead of
+ * allocating a new one, as long as the CSP has the same size as the previous one. The workspace lives as long as
+ * its thread and this solver do.
+ *
+ * The solver is a {@code Solver<Integer>} as well: it converts a {@code CSP<Integer>} into an {@code IntCSP} (cf.
+ * {@link IntCSP#of(CSP)}), so existing integer models benefit from the primitive engine without any changes.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class IntSolver implements Solver<Integer> {
+
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    @Override
+    public Optional<Assignment<Integer>> solve(final CSP<Integer> csp) {
+        final Assignment<Integer> initialAssignment = csp.initialAssignment();
+        if (!initialAssignment.isConsistent(csp.constraints())) {
+            return Optional.empty();
+        }
+        if (initialAssignment.unassignedVariables().stream().anyMatch(variable -> variable.domain().isEmpty())) {
+            // an IntVariable cannot have an empty domain, but the outcome is clear anyway
+            return Optional.empty();
+        }
+        final IntCSP intCSP = IntCSP.of(csp);
+        final List<IntVariable> variables = intCSP.variables();
+        return solve(intCSP).map(values -> {
+            final Map<VariableIdentity, Variable<Integer>> assignment = new HashMap<>();
+            for (int variable = 0; variable < values.length; variable++) {
+                final VariableIdentity identity = VariableIdentity.id(variables.get(variable).name());
+                assignment.put(identity, Variable.assignedVariable(identity, values[variable]));
+            }
+            return Assignment.initialAssignment(assignment);
+        });
+    }
+
+    /**
+     * Searches the state space of the given CSP for a solution.
+     *
+     * @param csp
+     *      represents the CSP to solve
+     * @return
+     *      the values of the variables of the CSP in the order of {@link IntCSP#variables()}, or an empty
+     *      {@code Optional} if the CSP has no solution
+     * @throws IllegalArgumentException
+     *      if some domain contains {@code Integer.MAX_VALUE} or the values of all domains span too wide a range
+     */
+    public Optional<int[]> solve(final IntCSP csp) {
+        return count(csp, 1).firstSolution();
+    }
+
+    /**
+     * Counts the solutions of the given CSP, but stops searching as soon as the given number of solutions has
+     * been found. Bounding the count to two solutions tells whether a CSP has a unique solution, which takes far
+     * less time than counting all of them.
+     *
+     * @param csp
+     *      represents the CSP whose solutions ought to be counted
+     * @param limit
+     *      the search stops after this many solutions, must be positive
+     * @return
+     *      the number of solutions found along with the number of decisions that the search took
+     * @throws IllegalArgumentException
+     *      if {@code limit} is not positive, if some domain contains {@code Integer.MAX_VALUE} or the values of all
+     *      domains span too wide a range
+     */
+    public SolutionCount count(final IntCSP csp, final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The limit must be positive, but was " + limit + ".");
+        }
+        return new Search(csp.variables(), csp.constraints(), workspaces.get()).run(limit);
+    }
+
+    /**
+     * Holds the memory of a search, so that it can be reused by the next search on the same thread. This includes
+     * the index from variables to the constraints on them, which is reused as long as the CSP yields the very same
+     * list of constraints, as does a CSP that keeps them in a constant. Such a list must not be modified in between.
+     */
+    private static class Workspace {
+
+        private List<IntConstraint> indexedConstraints;
+
+        private int indexedVariables;
+
+        private int[][] constraintsOfVariable;
+
+        private DomainArena arena;
+
+        private IntDomains domains;
+
+        private int offset;
+
+        private int[] propagationQueue = new int[0];
+
+        private int[] stackOfVariables = new int[0];
+
+        private int[] stackOfMarks = new int[0];
+
+        private int[] stackOfValues = new int[0];
+
+        /**
+         * @return
+         *      the domains of an empty arena of the given size, which is reset if it has the same size as the
+         *      previous one, and allocated anew otherwise
+         */
+        int[][] constraintsOfVariable(final int numberOfVariables, final List<IntConstraint> constraints) {
+            if (constraints == indexedConstraints && numberOfVariables == indexedVariables) {
+                return constraintsOfVariable;
+            }
+            // counts the constraints per variable first, so that they can be filled in without boxing
+            final int[] numberOfConstraints = new int[numberOfVariables];
+            for (IntConstraint constraint : constraints) {
+                for (int variable : constraint.scope()) {
+                    numberOfConstraints[variable]++;
+                }
+            }
+            constraintsOfVariable = new int[numberOfVariables][];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                constraintsOfVariable[variable] = new int[numberOfConstraints[variable]];
+                numberOfConstraints[variable] = 0;
+            }
+            for (int constraint = 0; constraint < constraints.size(); constraint++) {
+                for (int variable : constraints.get(constraint).scope()) {
+                    constraintsOfVariable[variable][numberOfConstraints[variable]++] = constraint;
+                }
+            }
+            indexedConstraints = constraints;
+            indexedVariables = numberOfVariables;
+            return constraintsOfVariable;
+        }
+
+        IntDomains domains(final int numberOfVariables, final int offset, final int numberOfValues) {
+            if (arena != null && arena.numberOfVariables() == numberOfVariables && arena.numberOfValues() == numberOfValues) {
+                arena.reset();
+            } else {
+                if (arena != null) {
+                    arena.close();
+                }
+                arena = DomainArena.allocate(numberOfVariables, numberOfValues);
+                domains = null;
+            }
+            if (domains == null || this.offset != offset) {
+                domains = new IntDomains(arena, offset, numberOfValues);
+                this.offset = offset;
+            }
+            if (propagationQueue.length < numberOfVariables) {
+                propagationQueue = new int[numberOfVariables];
+                stackOfVariables = new int[numberOfVariables + 1];
+                stackOfMarks = new int[numberOfVariables + 1];
+                stackOfValues = new int[numberOfVariables + 1];
+            }
+            return domains;
+        }
+    }
+
+    private static class Search {
+
+        private final List<IntVariable> variables;
+
+        private final List<IntConstraint> constraints;
+
+        private final int numberOfVariables;
+
+        private final int offset;
+
+        private final int numberOfValues;
+
+        private final int[][] constraintsOfVariable;
+
+        private final DomainArena arena;
+
+        private final IntDomains domains;
+
+        private final int[] propagationQueue;
+
+        private final int[] stackOfVariables;
+
+        private final int[] stackOfMarks;
+
+        private final int[] stackOfValues;
+
+        Search(final List<IntVariable> variables, final List<IntConstraint> constraints, final Workspace workspace) {
+            this.variables = variables;
+            this.constraints = constraints;
+            this.numberOfVariables = variables.size();
+
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (IntVariable variable : variables) {
+                min = Math.min(min, variable.min());
+                max = Math.max(max, variable.max());
+            }
+            if (max == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Domains must not contain Integer.MAX_VALUE.");
+            }
+            final long range = numberOfVariables == 0 ? 0L : (long) max - min + 1;
+            if (range > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The values of all domains span too wide a range.");
+            }
+            this.offset = numberOfVariables == 0 ? 0 : min;
+            this.numberOfValues = (int) range;
+
+            this.constraintsOfVariable = workspace.constraintsOfVariable(numberOfVariables, constraints);
+            this.domains = workspace.domains(numberOfVariables, offset, numberOfValues);
+            this.arena = workspace.arena;
+            this.propagationQueue = workspace.propagationQueue;
+            this.stackOfVariables = workspace.stackOfVariables;
+            this.stackOfMarks = workspace.stackOfMarks;
+            this.stackOfValues = workspace.stackOfValues;
+        }
+
+        SolutionCount run(final int limit) {
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                final IntVariable initialDomain = variables.get(variable);
+                arena.initialize(variable, initialDomain.min() - offset, initialDomain.bits());
+            }
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                if (!arena.isAssigned(variable) && arena.size(variable) == 1 && !assign(arena, domains, variable, arena.nextValue(variable, 0))) {
+                    return new SolutionCount(0, 0L, null);
+                }
+            }
+
+            int solutions = 0;
+            long decisions = 0L;
+            int[] firstSolution = null;
+            int depth = 0;
+            int next = select(arena);
+            if (next == -1) {
+                firstSolution = solutionOf(domains);
+                return firstSolution == null ? new SolutionCount(0, 0L, null) : new SolutionCount(1, 0L, firstSolution);
+            }
+            push(depth++, next, arena.mark());
+
+            while (depth > 0) {
+                AbstractSolver.abortIfInterrupted();
+                final int top = depth - 1;
+                final int variable = stackOfVariables[top];
+                arena.undo(stackOfMarks[top]);
+                final int value = arena.nextValue(variable, stackOfValues[top] + 1);
+                if (value == -1) {
+                    depth--;
+                    continue;
+                }
+                stackOfValues[top] = value;
+                decisions++;
+                if (!assign(arena, domains, variable, value)) {
+                    continue;
+                }
+                next = select(arena);
+                if (next == -1) {
+                    final int[] solution = solutionOf(domains);
+                    if (solution != null) {
+                        if (firstSolution == null) {
+                            firstSolution = solution;
+                        }
+                        if (++solutions == limit) {
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                push(depth++, next, arena.mark());
+            }
+            return new SolutionCount(solutions, decisions, firstSolution);
+        }
+
+        private void push(final int depth, final int variable, final int mark) {
+            stackOfVariables[depth] = variable;
+            stackOfMarks[depth] = mark;
+            stackOfValues[depth] = -1;
+        }
+
+        /**
+         * Selects the unassigned variable with the fewest remaining values.
+         */
+        private int select(final DomainArena arena) {
+            int selected = -1;
+            int fewestValues = Integer.MAX_VALUE;
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                if (arena.isAssigned(variable)) {
+                    continue;
+                }
+                final int size = arena.size(variable);
+                if (size < fewestValues) {
+                    selected = variable;
+                    fewestValues = size;
+                    if (size <= 1) {
+                        break;
+                    }
+                }
+            }
+            return selected;
+        }
+
+        /**
+         * Assigns the value with the given index to the given variable and propagates the assignment through the
+         * constraints. Variables whose domains are reduced to a single value are assigned and propagated in turn.
+         */
+        private boolean assign(final DomainArena arena, final IntDomains domains, final int variable, final int valueIndex) {
+            int head = 0;
+            int tail = 0;
+            arena.assign(variable, valueIndex);
+            propagationQueue[tail++] = variable;
+            while (head < tail) {
+                final int assigned = propagationQueue[head++];
+                for (int constraint : constraintsOfVariable[assigned]) {
+                    domains.clearChangedVariables();
+                    if (!constraints.get(constraint).propagate(domains, assigned)) {
+                        return false;
+                    }
+                    for (int position = 0; position < domains.numberOfChangedVariables(); position++) {
+                        final int dependent = domains.changedVariable(position);
+                        if (arena.isAssigned(dependent)) {
+                            continue;
+                        }
+                        final int remainingValues = arena.size(dependent);
+                        if (remainingValues == 0) {
+                            return false;
+                        }
+                        if (remainingValues == 1) {
+                            arena.assign(dependent, arena.nextValue(dependent, 0));
+                            propagationQueue[tail++] = dependent;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return
+         *      the values of the variables, or {@code null} if the complete assignment violates some constraint
+         */
+        private int[] solutionOf(final IntDomains domains) {
+            for (IntConstraint constraint : constraints) {
+                if (!constraint.isSatisfied(domains)) {
+                    return null;
+                }
+            }
+            final int[] values = new int[numberOfVariables];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                values[variable] = domains.valueOf(variable);
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.mgu.csp;
+
+import java.util.Arrays;
+
+/**
+ * A variable of an {@link IntCSP} along with its initial domain. The domain is stored as a bitset over the range
+ * between its smallest and its largest value, so neither the variable nor its values are boxed. A variable whose
+ * domain holds a single value is fixed, which is how the givens of a problem are modelled.
+ *
+ * This class is immutable.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public final class IntVariable {
+
+    private final String name;
+
+    private final int min;
+
+    private final long[] bits;
+
+    private final int size;
+
+    private IntVariable(final String name, final int min, final long[] bits) {
+        this.name = name;
+        this.min = min;
+        this.bits = bits;
+        int size = 0;
+        for (long word : bits) {
+            size += Long.bitCount(word);
+        }
+        this.size = size;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return
+     *      the smallest value of the domain of this variable
+     */
+    public int min() {
+        return min;
+    }
+
+    /**
+     * @return
+     *      the largest value of the domain of this variable
+     */
+    public int max() {
+        for (int word = bits.length - 1; word >= 0; word--) {
+            if (bits[word] != 0) {
+                return min + word * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(bits[word]);
+            }
+        }
+        throw new IllegalStateException("The domain of variable " + name + " is empty.");
+    }
+
+    public boolean contains(final int value) {
+        final long offset = (long) value - min;
+        if (offset < 0 || offset >= (long) bits.length * Long.SIZE) {
+            return false;
+        }
+        return (bits[(int) offset / Long.SIZE] & (1L << (offset % Long.SIZE))) != 0;
+    }
+
+    /**
+     * @return
+     *      number of values in the domain of this variable
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isFixed() {
+        return size == 1;
+    }
+
+    /**
+     * @return
+     *      the values of the domain of this variable in ascending order
+     */
+    public int[] values() {
+        final int[] values = new int[size];
+        int position = 0;
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                values[position++] = min + word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return
+     *      the domain of this variable as a bitset, where bit {@code i} stands for the value {@code min() + i}; the
+     *      array is shared and must not be modified
+     */
+    long[] bits() {
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        return name + " = " + Arrays.toString(values());
+    }
+
+    /**
+     * @param name
+     *      uniquely identifies the variable within its CSP
+     * @param min
+     *      the smallest value of the domain (inclusive)
+     * @param max
+     *      the largest value of the domain (inclusive)
+     * @return
+     *      a variable whose domain holds all values between {@code min} and {@code max}
+     * @throws IllegalArgumentException
+     *      if the range is empty or too wide
+     */
+    public static IntVariable range(final String name, final int min, final int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("The domain of variable " + name + " must not be empty.");
+        }
+        if ((long) max - min >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The domain of variable " + name + " spans too wide a range.");
+        }
+        final int size = max - min + 1;
+        final long[] bits = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        Arrays.fill(bits, -1L);
+        if (size % Long.SIZE != 0) {
+            bits[bits.length - 1] = (1L << (size % Long.SIZE)) - 1;
+        }
+        return new IntVariable(name, min, bits);
+    }
+
+    /**
+     * @param name
+     *      uniquely identifies the variable within its CSP
+     * @param values
+     *      the values of the domain
+     * @return
+     *      a variable whose domain holds exactly the given values
+     * @throws IllegalArgumentException
+     *      if no values are given or they span too wide a range
+     */
+    public static IntVariable of(final String name, final int... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("The domain of variable " + name + " must not be empty.");
+        }
+        int min = values[0];
+        int max = values[0];
+        for (int value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if ((long) max - min >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The domain of variable " + name + " spans too wide a range.");
+        }
+        final long[] bits = new long[(max - min) / Long.SIZE + 1];
+        for (int value : values) {
+            bits[(value - min) / Long.SIZE] |= 1L << ((value - min) % Long.SIZE);
+        }
+        return new IntVariable(name, min, bits);
+    }
+
+    /**
+     * @param name
+     *      uniquely identifies the variable within its CSP
+     * @param value
+     *      the value that the variable is fixed to
+     * @return
+     *      a variable whose domain holds only the given value
+     */
+    public static IntVariable fixed(final String name, final int value) {
+        return of(name, value);
+    }
+}
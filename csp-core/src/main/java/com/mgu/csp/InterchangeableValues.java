@@ -0,0 +1,59 @@
+package com.mgu.csp;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This {@code ValueOrdering} breaks value symmetries dynamically during search. It is meant for CSPs whose
+ * domain values are fully interchangeable, e.g. the colors of a k-colorability problem: every permutation of
+ * the values maps a solution onto another solution. With regard to such a symmetry, all values that have not
+ * been assigned to any variable yet are equivalent. Trying more than one of them leads into subtrees that are
+ * symmetric to the one that has already been explored, so this ordering retains only the first of them.
+ *
+ * For full value interchangeability this is exactly what symmetry breaking during search (SBDS) derives: after
+ * a value v has been refuted, all of its symmetric images that are still unused are refuted as well. It cuts the
+ * search space of a k-colorability problem by up to a factor of k!.
+ *
+ * Do not combine this ordering with static symmetry breaking constraints (cf. {@link LexLeader}) on the values
+ * of the same variables, since both might pick different representatives of the same symmetry class.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class InterchangeableValues<Type> implements ValueOrdering<Type> {
+
+    private final ValueOrdering<Type> valueOrdering;
+
+    /**
+     * Preserves the original order of domain values.
+     */
+    public InterchangeableValues() {
+        this(new ValueOrdering<Type>() {});
+    }
+
+    /**
+     * @param valueOrdering
+     *      {@link ValueOrdering} that decides on the order of the retained domain values
+     */
+    public InterchangeableValues(final ValueOrdering<Type> valueOrdering) {
+        this.valueOrdering = valueOrdering;
+    }
+
+    @Override
+    public Set<Type> orderedDomain(final Variable<Type> variable, final Assignment<Type> assignment, final Set<Constraint> constraints) {
+        final Set<Type> usedValues = assignment.assignedValues();
+        final Set<Type> orderedDomain = new LinkedHashSet<>();
+        boolean unusedValueRetained = false;
+        for (Type value : valueOrdering.orderedDomain(variable, assignment, constraints)) {
+            if (usedValues.contains(value)) {
+                orderedDomain.add(value);
+            } else if (!unusedValueRetained) {
+                orderedDomain.add(value);
+                unusedValueRetained = true;
+            }
+        }
+        return orderedDomain;
+    }
+}
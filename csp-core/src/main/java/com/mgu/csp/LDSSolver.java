@@ -0,0 +1,118 @@
+package com.mgu.csp;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Performs a limited discrepancy search. A discrepancy is a decision that deviates from the {@link ValueOrdering}:
+ * picking the i-th consistent value of a variable instead of the first one counts as i discrepancies. With a
+ * good value ordering, most solutions lie only a few discrepancies away from the path that follows the heuristic
+ * all the way down.
+ *
+ * The solver probes the state space in iterations. The k-th iteration explores all paths with at most k
+ * discrepancies in a depth-first manner. Hence, the first solution that is found is one of the solutions that
+ * are closest to the heuristic. The search is complete, unless the maximum number of discrepancies is limited
+ * explicitly: it terminates as soon as an iteration did not have to cut off any path.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class LDSSolver<Type> extends AbstractSolver<Type> {
+
+    private final int maximumDiscrepancies;
+
+    /**
+     * Uses uninformed heuristics for {@link VariableOrdering} and {@link ValueOrdering} and does not limit
+     * the number of discrepancies.
+     */
+    public LDSSolver() {
+        this(new VariableOrdering<Type>() {}, new ValueOrdering<Type>() {});
+    }
+
+    /**
+     * Uses the given {@link VariableOrdering} and {@link ValueOrdering} and does not limit the number of
+     * discrepancies.
+     *
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     */
+    public LDSSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering) {
+        this(variableOrdering, valueOrdering, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param variableOrdering
+     *      represents a heuristic for picking the next unassigned variable
+     * @param valueOrdering
+     *      represents a heuristic for ordering domain values
+     * @param maximumDiscrepancies
+     *      the search gives up after the iteration that allows for this number of discrepancies
+     */
+    public LDSSolver(final VariableOrdering<Type> variableOrdering, final ValueOrdering<Type> valueOrdering, final int maximumDiscrepancies) {
+        super(variableOrdering, valueOrdering);
+        this.maximumDiscrepancies = maximumDiscrepancies;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+
+        if (!initialAssignment.isConsistent(constraints)) {
+            return Optional.empty();
+        }
+
+        return traceSolve(() -> iterate(constraints, initialAssignment));
+    }
+
+    private Optional<Assignment<Type>> iterate(final Set<Constraint> constraints, final Assignment<Type> initialAssignment) {
+        for (int discrepancies = 0; discrepancies <= maximumDiscrepancies; discrepancies++) {
+            if (discrepancies > 0) {
+                tracer().restarted(discrepancies);
+            }
+            final AtomicBoolean cutOff = new AtomicBoolean(false);
+            final Optional<Assignment<Type>> solution = probe(constraints, initialAssignment, discrepancies, cutOff);
+            if (solution.isPresent() || !cutOff.get()) {
+                return solution;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Assignment<Type>> probe(
+            final Set<Constraint> constraints,
+            final Assignment<Type> assignment,
+            final int discrepancies,
+            final AtomicBoolean cutOff) {
+
+        if (assignment.isSatisfied(constraints)) {
+            return Optional.of(assignment);
+        }
+
+        if (assignment.isComplete()) {
+            return Optional.empty();
+        }
+
+        final Iterator<Assignment<Type>> successors = successors(assignment, constraints).iterator();
+        for (int rank = 0; successors.hasNext(); rank++) {
+            if (rank > discrepancies) {
+                cutOff.set(true);
+                break;
+            }
+            final Assignment<Type> successor = successors.next();
+            notifyListeners(successor);
+            final Optional<Assignment<Type>> solution = probe(constraints, successor, discrepancies - rank, cutOff);
+            if (solution.isPresent()) {
+                return solution;
+            }
+        }
+        tracer().backtracked(depthOf(assignment));
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code LexLeader} constraint breaks a variable symmetry statically at model time. Suppose that swapping
+ * the variables of vector X = (x_1, ..., x_n) with the variables of vector Y = (y_1, ..., y_n) maps every
+ * solution onto another solution, e.g. two rows within the same band of an empty Sudoku. Requiring X to be
+ * lexicographically smaller than or equal to Y retains exactly one solution out of every such pair.
+ *
+ * The domain values of the variables must implement {@link Comparable}. The constraint reasons about the bounds
+ * of unassigned variables, so it detects a violation as soon as the smallest remaining value of x_i exceeds the
+ * largest remaining value of y_i while all preceding positions are forced to be equal.
+ *
+ * Please note that the declared symmetry must actually hold for the CSP at hand, including any givens of its
+ * initial assignment. Otherwise this constraint removes solutions.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class LexLeader implements Constraint {
+
+    private final List<VariableIdentity> smaller;
+
+    private final List<VariableIdentity> larger;
+
+    private final Set<VariableIdentity> reliesOn;
+
+    public LexLeader(final List<VariableIdentity> smaller, final List<VariableIdentity> larger) {
+        if (smaller.size() != larger.size()) {
+            throw new IllegalArgumentException("Both vectors of a LexLeader constraint must have the same length.");
+        }
+        this.smaller = new ArrayList<>(smaller);
+        this.larger = new ArrayList<>(larger);
+        this.reliesOn = new HashSet<>(smaller);
+        this.reliesOn.addAll(larger);
+    }
+
+    @Override
+    public <Type> boolean isConsistent(final Set<Variable<Type>> dependentVariables) {
+        final Map<VariableIdentity, Variable<Type>> variables = dependentVariables
+                .stream()
+                .collect(Collectors.toMap(Variable::identity, Function.identity()));
+        for (int i = 0; i < smaller.size(); i++) {
+            final Variable<Type> x = variables.get(smaller.get(i));
+            final Variable<Type> y = variables.get(larger.get(i));
+            if (x.equals(y)) {
+                continue;
+            }
+            if (!hasValues(x) || !hasValues(y)) {
+                return false;
+            }
+            final int comparison = compare(lowerBound(x), upperBound(y));
+            if (comparison > 0) {
+                return false;
+            }
+            if (comparison < 0) {
+                // x_i can still be strictly smaller than y_i, which decides the comparison regardless of the rest
+                return true;
+            }
+            // x_i = y_i is the only option left, so the remaining positions decide
+        }
+        return true;
+    }
+
+    @Override
+    public <Type> boolean isSatisfied(final Set<Variable<Type>> dependentVariables) {
+        return dependentVariables
+                .stream()
+                .allMatch(variable -> variable.isAssigned()) && isConsistent(dependentVariables);
+    }
+
+    @Override
+    public Set<VariableIdentity> reliesOn() {
+        return Collections.unmodifiableSet(reliesOn);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LexLeader lexLeader = (LexLeader) o;
+
+        return smaller.equals(lexLeader.smaller) && larger.equals(lexLeader.larger);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * smaller.hashCode() + larger.hashCode();
+    }
+
+    @Override
+    public boolean prunesAssignedValue() {
+        return false;
+    }
+
+    private static <Type> boolean hasValues(final Variable<Type> variable) {
+        return variable.isAssigned() || !variable.domain().isEmpty();
+    }
+
+    private static <Type> Type lowerBound(final Variable<Type> variable) {
+        return variable.isAssigned() ? variable.valueOf() : extremum(variable.domain(), -1);
+    }
+
+    private static <Type> Type upperBound(final Variable<Type> variable) {
+        return variable.isAssigned() ? variable.valueOf() : extremum(variable.domain(), 1);
+    }
+
+    private static <Type> Type extremum(final Set<Type> domain, final int direction) {
+        final Iterator<Type> values = domain.iterator();
+        Type extremum = values.next();
+        while (values.hasNext()) {
+            final Type value = values.next();
+            if (compare(value, extremum) * direction > 0) {
+                extremum = value;
+            }
+        }
+        return extremum;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Type> int compare(final Type a, final Type b) {
+        return ((Comparable<Type>) a).compareTo(b);
+    }
+
+    /**
+     * Breaks the symmetry of a sequence of interchangeable vectors of variables by ordering them
+     * lexicographically, i.e. V_1 <= V_2 <= ... <= V_n.
+     *
+     * @param vectors
+     *      interchangeable vectors of variables, each of the same length
+     * @return
+     *      unmodifiable {@code Set} of {@code LexLeader} constraints between each pair of consecutive vectors
+     */
+    public static Set<Constraint> chain(final List<List<VariableIdentity>> vectors) {
+        final Set<Constraint> constraints = new HashSet<>();
+        for (int i = 0; i < vectors.size() - 1; i++) {
+            constraints.add(new LexLeader(vectors.get(i), vectors.get(i + 1)));
+        }
+        return Collections.unmodifiableSet(constraints);
+    }
+}
@@ -0,0 +1,509 @@
+package com.mgu.csp;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Performs a local search using the min-conflicts heuristic with tabu moves and random walk. In contrast to the
+ * complete solvers, this solver operates on complete assignments: it starts off from a random value for every
+ * unassigned variable and repeatedly picks a variable of a violated {@link Constraint}, which is then moved to
+ * the value with the fewest violations (cf. {@link Constraint#violationsOf(Set)}). Moving a variable back to a
+ * value it recently held is tabu for a number of steps, unless the move leads to a new best assignment. With a
+ * small probability, the variable is moved to a random value instead (random walk), which helps escaping from
+ * local minima.
+ *
+ * The solver keeps track of the violations of every constraint incrementally. For an {@link AllDiff}, it counts
+ * how many of its variables hold each value, so the change of its violations caused by a move is a lookup of two
+ * counts, and neither evaluating a candidate value nor moving a variable allocates. Any other constraint is
+ * re-evaluated by means of {@link Constraint#violationsOf(Set)} for every candidate value of one of its variables.
+ * Thus, a move costs time in proportion to the number of constraints of the moved variable rather than to the size
+ * of the CSP. {@code Variable}s are only created for the variables of constraints other than {@code AllDiff}, and
+ * only for values they actually take, so that the memory of the search stays in proportion to the size of the CSP.
+ * Variables that are already assigned in the initial assignment of the CSP keep their values.
+ *
+ * Local search is incomplete: it can neither prove that a CSP has no solution nor guarantee to find one. Its best
+ * assignment can seed the value ordering of a complete solver, though (cf. {@link HybridSolver}).
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class LocalSearchSolver<Type> implements Solver<Type> {
+
+    private static final int DEFAULT_MAXIMUM_STEPS = 100_000;
+
+    private static final int DEFAULT_TABU_TENURE = 10;
+
+    private static final double DEFAULT_RANDOM_WALK_PROBABILITY = 0.02;
+
+    private final int maximumSteps;
+
+    private final int tabuTenure;
+
+    private final double randomWalkProbability;
+
+    private final long seed;
+
+    /**
+     * Uses default settings for the maximum number of steps, the tabu tenure and the random walk probability.
+     */
+    public LocalSearchSolver() {
+        this(DEFAULT_MAXIMUM_STEPS, DEFAULT_TABU_TENURE, DEFAULT_RANDOM_WALK_PROBABILITY, 0L);
+    }
+
+    /**
+     * @param maximumSteps
+     *      the search gives up after this number of moves
+     * @param tabuTenure
+     *      number of steps for which moving a variable back to its previous value is tabu
+     * @param randomWalkProbability
+     *      probability of moving a variable to a random value instead of the best one
+     * @param seed
+     *      seed for the random number generator, so that searches are reproducible
+     */
+    public LocalSearchSolver(final int maximumSteps, final int tabuTenure, final double randomWalkProbability, final long seed) {
+        this.maximumSteps = maximumSteps;
+        this.tabuTenure = tabuTenure;
+        this.randomWalkProbability = randomWalkProbability;
+        this.seed = seed;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        return search(csp).filter(assignment -> assignment.isSatisfied(constraints));
+    }
+
+    /**
+     * Searches the state space of the given CSP for a complete assignment that violates as few constraints as
+     * possible.
+     *
+     * @param csp
+     *      represents the CSP to solve
+     * @return
+     *      the complete {@link Assignment} with the fewest violated constraints that has been found, or an empty
+     *      {@code Optional} if some unassigned variable of the initial assignment has no domain values left
+     * @throws IllegalArgumentException
+     *      if some constraint relies on a variable that is not part of the initial assignment of the CSP
+     */
+    public Optional<Assignment<Type>> search(final CSP<Type> csp) {
+        final Assignment<Type> initialAssignment = csp.initialAssignment();
+        if (initialAssignment.unassignedVariables().stream().anyMatch(variable -> variable.domain().isEmpty())) {
+            return Optional.empty();
+        }
+        return Optional.of(new Search(initialAssignment, csp.constraints()).run());
+    }
+
+    private class Search {
+
+        private final Random random = new Random(seed);
+
+        private final List<VariableIdentity> identities = new ArrayList<>();
+
+        private final List<List<Type>> domains = new ArrayList<>();
+
+        private final List<Constraint> constraints = new ArrayList<>();
+
+        private final List<int[]> freeVariablesOfConstraint = new ArrayList<>();
+
+        private final List<Scope> scopes = new ArrayList<>();
+
+        /**
+         * Number of variables of an {@code AllDiff} that hold a value, by the index of the value within the
+         * constraint, or {@code null} for any other constraint.
+         */
+        private final List<int[]> occurrencesOfConstraint = new ArrayList<>();
+
+        private final int[][] constraintsOfVariable;
+
+        /**
+         * Maps the values of a variable to their indices within each of its constraints, or {@code null} for a
+         * constraint other than {@code AllDiff}.
+         */
+        private final int[][][] valueIndicesOfVariable;
+
+        private final Variable<?>[][] assignedVariables;
+
+        private final boolean[] free;
+
+        private final int[] current;
+
+        private final int[] best;
+
+        private final int[][] tabuUntil;
+
+        private final int[] violations;
+
+        private final IndexSet violatedConstraints;
+
+        private int totalViolations = 0;
+
+        private int fixedViolations = 0;
+
+        Search(final Assignment<Type> initialAssignment, final Set<Constraint> constraintsOfCSP) {
+            final Map<VariableIdentity, Integer> indexOf = new HashMap<>();
+            for (VariableIdentity identity : initialAssignment.variableIdentities()) {
+                final Variable<Type> variable = initialAssignment.variableOf(identity);
+                final List<Type> domain = new ArrayList<>();
+                if (variable.isAssigned()) {
+                    domain.add(variable.valueOf());
+                } else {
+                    domain.addAll(variable.domain());
+                }
+                indexOf.put(identity, identities.size());
+                identities.add(identity);
+                domains.add(domain);
+            }
+
+            final int numberOfVariables = identities.size();
+            this.assignedVariables = new Variable<?>[numberOfVariables][];
+            this.free = new boolean[numberOfVariables];
+            this.current = new int[numberOfVariables];
+            this.best = new int[numberOfVariables];
+            this.tabuUntil = new int[numberOfVariables][];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                free[variable] = !initialAssignment.variableOf(identities.get(variable)).isAssigned();
+                tabuUntil[variable] = new int[domains.get(variable).size()];
+                current[variable] = free[variable] ? random.nextInt(domains.get(variable).size()) : 0;
+            }
+
+            final List<List<Integer>> dependentConstraints = new ArrayList<>();
+            final List<List<int[]>> dependentValueIndices = new ArrayList<>();
+            identities.forEach(identity -> {
+                dependentConstraints.add(new ArrayList<>());
+                dependentValueIndices.add(new ArrayList<>());
+            });
+            final Map<Integer, int[]> identityMappings = new HashMap<>();
+            for (Constraint constraint : constraintsOfCSP) {
+                final int[] variables = variablesOf(constraint, indexOf);
+                final int[] freeVariables = Arrays.stream(variables).filter(variable -> free[variable]).toArray();
+                if (freeVariables.length == 0) {
+                    // nothing can be done about a constraint on fixed variables, so it is evaluated only once
+                    fixedViolations += constraint.violationsOf(new Scope(variables));
+                    continue;
+                }
+                final int[][] valueIndices = constraint instanceof AllDiff ? valueIndicesOf(variables, identityMappings) : null;
+                int[] occurrences = null;
+                if (valueIndices != null) {
+                    occurrences = new int[numberOfValuesOf(valueIndices)];
+                    for (int position = 0; position < variables.length; position++) {
+                        occurrences[valueIndices[position][current[variables[position]]]]++;
+                    }
+                }
+                for (int position = 0; position < variables.length; position++) {
+                    if (free[variables[position]]) {
+                        dependentConstraints.get(variables[position]).add(constraints.size());
+                        dependentValueIndices.get(variables[position]).add(valueIndices == null ? null : valueIndices[position]);
+                    }
+                }
+                constraints.add(constraint);
+                freeVariablesOfConstraint.add(freeVariables);
+                scopes.add(new Scope(variables));
+                occurrencesOfConstraint.add(occurrences);
+            }
+            this.constraintsOfVariable = new int[numberOfVariables][];
+            this.valueIndicesOfVariable = new int[numberOfVariables][][];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                constraintsOfVariable[variable] = dependentConstraints.get(variable).stream().mapToInt(Integer::intValue).toArray();
+                valueIndicesOfVariable[variable] = dependentValueIndices.get(variable).toArray(new int[0][]);
+            }
+
+            this.violations = new int[constraints.size()];
+            this.violatedConstraints = new IndexSet(constraints.size());
+            for (int constraint = 0; constraint < constraints.size(); constraint++) {
+                final int[] occurrences = occurrencesOfConstraint.get(constraint);
+                int violationsOfConstraint = 0;
+                if (occurrences == null) {
+                    violationsOfConstraint = evaluate(constraint);
+                } else {
+                    for (int occurrence : occurrences) {
+                        violationsOfConstraint += Math.max(occurrence - 1, 0);
+                    }
+                }
+                updateViolation(constraint, violationsOfConstraint);
+            }
+        }
+
+        private int[] variablesOf(final Constraint constraint, final Map<VariableIdentity, Integer> indexOf) {
+            final int[] variables = new int[constraint.reliesOn().size()];
+            int position = 0;
+            for (VariableIdentity identity : constraint.reliesOn()) {
+                final Integer index = indexOf.get(identity);
+                if (index == null) {
+                    throw new IllegalArgumentException("Constraint " + constraint.getClass().getSimpleName() + " relies on " +
+                                                       "variable " + identity + ", which is not part of the initial assignment.");
+                }
+                variables[position++] = index;
+            }
+            return variables;
+        }
+
+        /**
+         * Numbers the values of the given variables in the order of their first occurrence and maps the values of
+         * every variable to these numbers. Variables whose domain lists the values in the same order share the
+         * identity mapping, which is the common case.
+         */
+        private int[][] valueIndicesOf(final int[] variables, final Map<Integer, int[]> identityMappings) {
+            final Map<Type, Integer> indexOfValue = new HashMap<>();
+            final int[][] valueIndices = new int[variables.length][];
+            for (int position = 0; position < variables.length; position++) {
+                final List<Type> domain = domains.get(variables[position]);
+                final int[] indices = new int[domain.size()];
+                boolean identity = true;
+                for (int value = 0; value < domain.size(); value++) {
+                    indices[value] = indexOfValue.computeIfAbsent(domain.get(value), key -> indexOfValue.size());
+                    identity &= indices[value] == value;
+                }
+                valueIndices[position] = identity ? identityMappings.computeIfAbsent(indices.length, length -> indices) : indices;
+            }
+            return valueIndices;
+        }
+
+        private int numberOfValuesOf(final int[][] valueIndices) {
+            int numberOfValues = 0;
+            for (int[] indices : valueIndices) {
+                for (int index : indices) {
+                    numberOfValues = Math.max(numberOfValues, index + 1);
+                }
+            }
+            return numberOfValues;
+        }
+
+        Assignment<Type> run() {
+            int bestViolations = totalViolations;
+            System.arraycopy(current, 0, best, 0, current.length);
+
+            for (int step = 0; step < maximumSteps && bestViolations > 0 && fixedViolations == 0; step++) {
+                AbstractSolver.abortIfInterrupted();
+                final int constraint = violatedConstraints.get(random.nextInt(violatedConstraints.size()));
+                final int[] candidates = freeVariablesOfConstraint.get(constraint);
+                final int variable = candidates[random.nextInt(candidates.length)];
+                final int numberOfValues = domains.get(variable).size();
+                if (numberOfValues < 2) {
+                    continue;
+                }
+
+                final int previousValue = current[variable];
+                final int nextValue;
+                if (random.nextDouble() < randomWalkProbability) {
+                    nextValue = (previousValue + 1 + random.nextInt(numberOfValues - 1)) % numberOfValues;
+                } else {
+                    nextValue = bestValueOf(variable, step, bestViolations);
+                }
+                if (nextValue == previousValue) {
+                    continue;
+                }
+
+                moveTo(variable, nextValue);
+                tabuUntil[variable][previousValue] = step + tabuTenure;
+
+                if (totalViolations < bestViolations) {
+                    bestViolations = totalViolations;
+                    System.arraycopy(current, 0, best, 0, current.length);
+                }
+            }
+
+            final Map<VariableIdentity, Variable<Type>> variables = new HashMap<>();
+            for (int variable = 0; variable < identities.size(); variable++) {
+                final VariableIdentity identity = identities.get(variable);
+                variables.put(identity, Variable.assignedVariable(identity, domains.get(variable).get(best[variable])));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        private int bestValueOf(final int variable, final int step, final int bestViolations) {
+            final int previousValue = current[variable];
+            int bestValue = previousValue;
+            int bestDelta = Integer.MAX_VALUE;
+            int ties = 0;
+            for (int value = 0; value < domains.get(variable).size(); value++) {
+                if (value == previousValue) {
+                    continue;
+                }
+                final int delta = deltaOf(variable, value);
+                final boolean aspiration = totalViolations + delta < bestViolations;
+                if (tabuUntil[variable][value] > step && !aspiration) {
+                    continue;
+                }
+                if (delta < bestDelta) {
+                    bestValue = value;
+                    bestDelta = delta;
+                    ties = 1;
+                } else if (delta == bestDelta && random.nextInt(++ties) == 0) {
+                    bestValue = value;
+                }
+            }
+            return bestValue;
+        }
+
+        /**
+         * @return
+         *      the change of the total violations if the given variable was moved to the given value, which takes
+         *      a lookup per {@code AllDiff} and an evaluation per other constraint of the variable
+         */
+        private int deltaOf(final int variable, final int value) {
+            final int previousValue = current[variable];
+            int delta = 0;
+            for (int slot = 0; slot < constraintsOfVariable[variable].length; slot++) {
+                final int constraint = constraintsOfVariable[variable][slot];
+                final int[] occurrences = occurrencesOfConstraint.get(constraint);
+                if (occurrences != null) {
+                    final int[] valueIndices = valueIndicesOfVariable[variable][slot];
+                    final int from = valueIndices[previousValue];
+                    final int to = valueIndices[value];
+                    if (from != to) {
+                        delta += (occurrences[to] > 0 ? 1 : 0) - (occurrences[from] > 1 ? 1 : 0);
+                    }
+                } else {
+                    current[variable] = value;
+                    delta += evaluate(constraint) - violations[constraint];
+                    current[variable] = previousValue;
+                }
+            }
+            return delta;
+        }
+
+        /**
+         * Moves the given variable to the given value and updates the violations of its constraints.
+         */
+        private void moveTo(final int variable, final int value) {
+            final int previousValue = current[variable];
+            current[variable] = value;
+            for (int slot = 0; slot < constraintsOfVariable[variable].length; slot++) {
+                final int constraint = constraintsOfVariable[variable][slot];
+                final int[] occurrences = occurrencesOfConstraint.get(constraint);
+                if (occurrences != null) {
+                    final int[] valueIndices = valueIndicesOfVariable[variable][slot];
+                    final int from = valueIndices[previousValue];
+                    final int to = valueIndices[value];
+                    if (from != to) {
+                        final int delta = (occurrences[to] > 0 ? 1 : 0) - (occurrences[from] > 1 ? 1 : 0);
+                        occurrences[from]--;
+                        occurrences[to]++;
+                        updateViolation(constraint, violations[constraint] + delta);
+                    }
+                } else {
+                    updateViolation(constraint, evaluate(constraint));
+                }
+            }
+        }
+
+        private int evaluate(final int constraint) {
+            return constraints.get(constraint).violationsOf(scopes.get(constraint));
+        }
+
+        private void updateViolation(final int constraint, final int violationsAfter) {
+            final int violationsBefore = violations[constraint];
+            if (violationsAfter > 0 && violationsBefore == 0) {
+                violatedConstraints.add(constraint);
+            } else if (violationsAfter == 0 && violationsBefore > 0) {
+                violatedConstraints.remove(constraint);
+            }
+            violations[constraint] = violationsAfter;
+            totalViolations += violationsAfter - violationsBefore;
+        }
+
+        /**
+         * @return
+         *      the given variable assigned to its current value; the assigned variables are only created once they
+         *      are needed, i.e. for variables of constraints other than {@code AllDiff}
+         */
+        @SuppressWarnings("unchecked")
+        private Variable<Type> stateOf(final int variable) {
+            if (assignedVariables[variable] == null) {
+                assignedVariables[variable] = new Variable<?>[domains.get(variable).size()];
+            }
+            final int value = current[variable];
+            if (assignedVariables[variable][value] == null) {
+                assignedVariables[variable][value] = Variable.assignedVariable(identities.get(variable), domains.get(variable).get(value));
+            }
+            return (Variable<Type>) assignedVariables[variable][value];
+        }
+
+        /**
+         * Read-only view on the current state of the variables a constraint relies on.
+         */
+        private class Scope extends AbstractSet<Variable<Type>> {
+
+            private final int[] variables;
+
+            Scope(final int[] variables) {
+                this.variables = variables;
+            }
+
+            @Override
+            public Iterator<Variable<Type>> iterator() {
+                return new Iterator<Variable<Type>>() {
+
+                    private int position = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < variables.length;
+                    }
+
+                    @Override
+                    public Variable<Type> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return stateOf(variables[position++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return variables.length;
+            }
+        }
+    }
+
+    /**
+     * Sparse set of indices that supports adding, removing and picking an element by position in constant time.
+     */
+    private static class IndexSet {
+
+        private final int[] dense;
+
+        private final int[] sparse;
+
+        private int size = 0;
+
+        IndexSet(final int capacity) {
+            this.dense = new int[capacity];
+            this.sparse = new int[capacity];
+        }
+
+        void add(final int index) {
+            dense[size] = index;
+            sparse[index] = size;
+            size++;
+        }
+
+        void remove(final int index) {
+            final int position = sparse[index];
+            final int last = dense[--size];
+            dense[position] = last;
+            sparse[last] = position;
+        }
+
+        int get(final int position) {
+            return dense[position];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -15,11 +15,15 @@ public class MinimumRemainingValue<Type> implements VariableOrdering<Type> {
 
     @Override
     public Variable<Type> selectUnassignedVariable(final Assignment<Type> assignment) {
-        return assignment
-                .unassignedVariables()
-                .stream()
-                .sorted((a, b) -> a.domain().size() - b.domain().size())
-                .findFirst()
-                .get();
+        Variable<Type> selected = null;
+        for (Variable<Type> variable : assignment.unassignedVariables()) {
+            if (selected == null || variable.domain().size() < selected.domain().size()) {
+                selected = variable;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalStateException("There is no unassigned variable left to select.");
+        }
+        return selected;
     }
 }
\ No newline at end of file
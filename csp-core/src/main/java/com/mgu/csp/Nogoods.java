@@ -0,0 +1,109 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded store of residual problems that are known to have no solution. The residual problem of a state consists
+ * of the domains of its unassigned variables and the constraints on them, with the assigned variables projected
+ * out. Two states that assigned different values to different variables - e.g. in an independent part of the CSP -
+ * may well leave the same residual problem behind, so a search that refuted the one state need not explore the
+ * other. Thus, a nogood is keyed by the domains of the unassigned variables along with the values of those
+ * assigned variables that share a constraint other than {@link AllDiff} with an unassigned variable.
+ *
+ * The values of all other assigned variables do not matter. An {@code AllDiff} constraint only forbids the values
+ * of its assigned variables, which forward checking has already removed from the domains of its unassigned
+ * variables, except for values that are assigned in the initial assignment and therefore in every state of the
+ * search alike. Constraints that rely on assigned variables only are satisfied by every consistent state.
+ *
+ * If the store is full, the least recently used nogood is dropped. A store with a capacity of zero does not even
+ * compute keys. This class is not thread-safe, since it is meant to be used within a single search.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+class Nogoods {
+
+    private final int capacity;
+
+    private final List<Constraint> unprojectableConstraints = new ArrayList<>();
+
+    private final Map<Residual, Boolean> residuals;
+
+    Nogoods(final int capacity, final Set<Constraint> constraints) {
+        this.capacity = capacity;
+        for (Constraint constraint : constraints) {
+            if (!(constraint instanceof AllDiff)) {
+                unprojectableConstraints.add(constraint);
+            }
+        }
+        this.residuals = new LinkedHashMap<Residual, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Residual, Boolean> eldest) {
+                return size() > Nogoods.this.capacity;
+            }
+        };
+    }
+
+    <Type> boolean contains(final Assignment<Type> assignment) {
+        return capacity > 0 && !residuals.isEmpty() && residuals.get(residualOf(assignment)) != null;
+    }
+
+    <Type> void add(final Assignment<Type> assignment) {
+        if (capacity > 0) {
+            residuals.put(residualOf(assignment), Boolean.TRUE);
+        }
+    }
+
+    private <Type> Residual residualOf(final Assignment<Type> assignment) {
+        final Map<VariableIdentity, Set<Type>> domains = new HashMap<>();
+        for (Variable<Type> variable : assignment.unassignedVariables()) {
+            domains.put(variable.identity(), variable.domain());
+        }
+        final Map<VariableIdentity, Type> values = new HashMap<>();
+        for (Constraint constraint : unprojectableConstraints) {
+            if (constraint.reliesOn().stream().noneMatch(domains::containsKey)) {
+                continue;
+            }
+            for (VariableIdentity identity : constraint.reliesOn()) {
+                if (!domains.containsKey(identity)) {
+                    values.put(identity, assignment.valueOf(identity));
+                }
+            }
+        }
+        return new Residual(domains, values);
+    }
+
+    private static class Residual {
+
+        private final Map<VariableIdentity, ?> domains;
+
+        private final Map<VariableIdentity, ?> values;
+
+        private final int hashCode;
+
+        Residual(final Map<VariableIdentity, ?> domains, final Map<VariableIdentity, ?> values) {
+            this.domains = domains;
+            this.values = values;
+            this.hashCode = 31 * domains.hashCode() + values.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Residual that = (Residual) o;
+
+            return hashCode == that.hashCode && domains.equals(that.domains) && values.equals(that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
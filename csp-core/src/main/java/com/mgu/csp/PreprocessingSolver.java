@@ -0,0 +1,105 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a pipeline of {@link Preprocessor}s on the initial assignment of a CSP before it hands the reduced CSP over
+ * to a {@link Solver}. Every stage of the pipeline has a time budget of its own, so the time spent on
+ * preprocessing is bounded, no matter how large the CSP is. A stage that proves that the CSP has no solution ends
+ * the solve right away.
+ *
+ * Preprocessing pays off for hard instances, where a few milliseconds of probing (cf. {@link ValueProbing} and
+ * {@link BoundsShaving}) remove values that the search would otherwise rule out over and over again in different
+ * branches.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class PreprocessingSolver<Type> implements Solver<Type> {
+
+    private final Solver<Type> solver;
+
+    private final List<Stage<Type>> stages = new ArrayList<>();
+
+    /**
+     * Creates a solver with an empty pipeline, which is extended by {@link #preprocessWith}.
+     *
+     * @param solver
+     *      the solver that is applied to the preprocessed CSP
+     */
+    public PreprocessingSolver(final Solver<Type> solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Appends a stage to the preprocessing pipeline.
+     *
+     * @param preprocessor
+     *      the {@link Preprocessor} that is run by the stage
+     * @param budget
+     *      maximum time the stage may take
+     * @param unit
+     *      time unit of {@code budget}
+     * @return
+     *      this {@code PreprocessingSolver}
+     */
+    public PreprocessingSolver<Type> preprocessWith(final Preprocessor<Type> preprocessor, final long budget, final TimeUnit unit) {
+        stages.add(new Stage<>(preprocessor, unit.toNanos(budget)));
+        return this;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> solve(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        return preprocess(csp).flatMap(reducedAssignment -> solver.solve(new CSP<Type>() {
+            @Override
+            protected Assignment<Type> initialAssignment() {
+                return reducedAssignment;
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return constraints;
+            }
+        }));
+    }
+
+    /**
+     * Runs all stages of the preprocessing pipeline on the initial assignment of the given CSP.
+     *
+     * @param csp
+     *      represents the CSP to preprocess
+     * @return
+     *      the reduced initial {@link Assignment}, or an empty {@code Optional} if the initial assignment is
+     *      inconsistent or some stage proved that the CSP has no solution
+     */
+    public Optional<Assignment<Type>> preprocess(final CSP<Type> csp) {
+        final Set<Constraint> constraints = csp.constraints();
+        Optional<Assignment<Type>> assignment = Optional.of(csp.initialAssignment()).filter(initial -> initial.isConsistent(constraints));
+        for (Stage<Type> stage : stages) {
+            if (!assignment.isPresent()) {
+                break;
+            }
+            assignment = stage.preprocessor.preprocess(assignment.get(), constraints, System.nanoTime() + stage.budgetNanos);
+        }
+        return assignment;
+    }
+
+    private static class Stage<Type> {
+
+        private final Preprocessor<Type> preprocessor;
+
+        private final long budgetNanos;
+
+        Stage(final Preprocessor<Type> preprocessor, final long budgetNanos) {
+            this.preprocessor = preprocessor;
+            this.budgetNanos = budgetNanos;
+        }
+    }
+}
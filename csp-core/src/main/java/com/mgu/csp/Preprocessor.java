@@ -0,0 +1,32 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@code Preprocessor} reduces the domains of the unassigned variables of an {@link Assignment} before the
+ * search starts off from it. It only removes values that cannot be part of any solution, so the reduced
+ * assignment has the same solutions as the original one. A preprocessor runs until it reaches a fixpoint or its
+ * deadline, whichever comes first. Since every single reduction is sound, stopping at the deadline yields a
+ * valid, if less reduced, assignment.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public interface Preprocessor<Type> {
+
+    /**
+     * @param assignment
+     *      the consistent {@link Assignment} that ought to be reduced
+     * @param constraints
+     *      {@code Set} of {@link Constraint}s of the CSP
+     * @param deadline
+     *      the preprocessor stops as soon as {@link System#nanoTime()} passes this point in time
+     * @return
+     *      the reduced {@link Assignment}, or an empty {@code Optional} if the preprocessor proved that the
+     *      given {@link Assignment} has no solution
+     */
+    Optional<Assignment<Type>> preprocess(Assignment<Type> assignment, Set<Constraint> constraints, long deadline);
+}
@@ -0,0 +1,148 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Base class for preprocessors that probe values: a value is assigned tentatively, and if the resulting
+ * {@link Assignment} turns out to be inconsistent, the value is removed from the domain of its variable. If that
+ * leaves a single value, the variable is assigned that value right away. Subclasses decide which values of a
+ * variable are probed. The preprocessor passes over all variables until a pass does not remove any value.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+abstract class ProbingPreprocessor<Type> implements Preprocessor<Type> {
+
+    private final boolean propagateSingletons;
+
+    /**
+     * @param propagateSingletons
+     *      if {@code true}, a probe assigns every variable whose domain has been reduced to a single value in
+     *      turn, which detects failures that forward checking alone does not reveal
+     */
+    ProbingPreprocessor(final boolean propagateSingletons) {
+        this.propagateSingletons = propagateSingletons;
+    }
+
+    @Override
+    public Optional<Assignment<Type>> preprocess(final Assignment<Type> assignment, final Set<Constraint> constraints, final long deadline) {
+        Assignment<Type> current = assignment;
+        boolean changed = true;
+        while (changed && !isPast(deadline)) {
+            changed = false;
+            for (VariableIdentity identity : current.variableIdentities()) {
+                if (isPast(deadline)) {
+                    break;
+                }
+                if (current.variableOf(identity).isAssigned()) {
+                    continue;
+                }
+                final Optional<Assignment<Type>> reduced = reduce(current, identity, constraints, deadline);
+                if (!reduced.isPresent()) {
+                    return Optional.empty();
+                }
+                changed |= reduced.get() != current;
+                current = reduced.get();
+            }
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Reduces the domain of the given variable by probing some of its values (cf. {@link #probe}).
+     *
+     * @return
+     *      the reduced {@link Assignment}, which is the given one if no value has been removed, or an empty
+     *      {@code Optional} if the domain of the variable has been wiped out
+     */
+    abstract Optional<Assignment<Type>> reduce(
+            Assignment<Type> assignment,
+            VariableIdentity identity,
+            Set<Constraint> constraints,
+            long deadline);
+
+    /**
+     * Probes the given values of the given variable in the given order and removes every value whose probe fails.
+     *
+     * @param untilSupported
+     *      if {@code true}, probing stops at the first value whose probe does not fail
+     */
+    Optional<Assignment<Type>> probe(
+            final Assignment<Type> assignment,
+            final VariableIdentity identity,
+            final Iterable<Type> values,
+            final Set<Constraint> constraints,
+            final boolean untilSupported,
+            final long deadline) {
+        Assignment<Type> current = assignment;
+        for (Type value : values) {
+            AbstractSolver.abortIfInterrupted();
+            final Variable<Type> variable = current.variableOf(identity);
+            if (variable.isAssigned() || isPast(deadline)) {
+                break;
+            }
+            if (!variable.domain().contains(value)) {
+                continue;
+            }
+            if (!fails(current, variable, value, constraints)) {
+                if (untilSupported) {
+                    break;
+                }
+                continue;
+            }
+            final Optional<Assignment<Type>> reduced = remove(current, variable, value, constraints);
+            if (!reduced.isPresent()) {
+                return Optional.empty();
+            }
+            current = reduced.get();
+        }
+        return Optional.of(current);
+    }
+
+    private boolean fails(final Assignment<Type> assignment, final Variable<Type> variable, final Type value, final Set<Constraint> constraints) {
+        Assignment<Type> probe = assignment.assign(variable, value, constraints);
+        if (!probe.isConsistent(constraints)) {
+            return true;
+        }
+        if (!propagateSingletons) {
+            return false;
+        }
+        Variable<Type> singleton = singletonOf(probe);
+        while (singleton != null) {
+            probe = probe.assign(singleton, singleton.domain().iterator().next(), constraints);
+            if (!probe.isConsistent(constraints)) {
+                return true;
+            }
+            singleton = singletonOf(probe);
+        }
+        return false;
+    }
+
+    private Variable<Type> singletonOf(final Assignment<Type> assignment) {
+        for (Variable<Type> variable : assignment.unassignedVariables()) {
+            if (variable.domain().size() == 1) {
+                return variable;
+            }
+        }
+        return null;
+    }
+
+    private Optional<Assignment<Type>> remove(final Assignment<Type> assignment, final Variable<Type> variable, final Type value, final Set<Constraint> constraints) {
+        final Assignment<Type> reduced = assignment.restrict(variable.identity(), value);
+        final Variable<Type> reducedVariable = reduced.variableOf(variable.identity());
+        if (reducedVariable.domain().isEmpty()) {
+            return Optional.empty();
+        }
+        final Assignment<Type> result = reducedVariable.domain().size() == 1
+                ? reduced.assign(reducedVariable, reducedVariable.domain().iterator().next(), constraints)
+                : reduced;
+        return result.isConsistent(constraints) ? Optional.of(result) : Optional.empty();
+    }
+
+    private static boolean isPast(final long deadline) {
+        return System.nanoTime() - deadline > 0;
+    }
+}
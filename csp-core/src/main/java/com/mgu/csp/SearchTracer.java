@@ -0,0 +1,94 @@
+package com.mgu.csp;
+
+/**
+ * A {@code SearchTracer} observes the internals of a search: the branches it takes, the points at which it
+ * backtracks or restarts, and the time spent in propagating assignments. In contrast to listeners, which observe
+ * the states of the search, tracers are meant for diagnosing where a slow search spends its time (cf.
+ * {@code FlightRecorderTracer} of module {@code csp-jfr} and {@link BinaryTraceWriter}).
+ *
+ * Tracing is disabled by default. A solver only gathers the data for its tracer if one has been set, so a
+ * disabled tracer costs nothing but a reference comparison per node. All methods do nothing by default.
+ *
+ * A tracer observes a single search at a time and need not be thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public interface SearchTracer {
+
+    /**
+     * The tracer that is in place if tracing is disabled.
+     */
+    SearchTracer NONE = new SearchTracer() {};
+
+    /**
+     * @param solver
+     *      name of the solver that starts searching
+     */
+    default void solveStarted(String solver) {
+    }
+
+    /**
+     * The search assigned a value to a variable.
+     *
+     * @param depth
+     *      depth of the resulting node, i.e. its number of assigned variables
+     * @param variable
+     *      identity of the variable that has been assigned
+     * @param value
+     *      the value that has been assigned
+     * @param consistent
+     *      {@code true} if the resulting assignment is consistent, {@code false} if the branch has been pruned
+     */
+    default void branched(int depth, VariableIdentity variable, Object value, boolean consistent) {
+    }
+
+    /**
+     * The search exhausted the subtree below a node without finding a solution.
+     *
+     * @param depth
+     *      depth of the exhausted node
+     */
+    default void backtracked(int depth) {
+    }
+
+    /**
+     * The search starts over from the initial assignment, e.g. with a larger number of admissible discrepancies.
+     *
+     * @param iteration
+     *      number of the iteration that starts, beginning with {@code 1} for the first restart
+     */
+    default void restarted(int iteration) {
+    }
+
+    /**
+     * The search applied forward checking to an assignment.
+     *
+     * @param nanos
+     *      time spent on forward checking
+     */
+    default void forwardChecked(long nanos) {
+    }
+
+    /**
+     * The search checked the consistency of a single constraint after an assignment.
+     *
+     * @param constraintType
+     *      type of the constraint
+     * @param nanos
+     *      time spent on checking the consistency of the constraint
+     * @param prunes
+     *      number of values that forward checking removed from the domains of other variables on behalf of
+     *      the constraint
+     * @param failed
+     *      {@code true} if the constraint is inconsistent after the assignment
+     */
+    default void propagated(Class<? extends Constraint> constraintType, long nanos, int prunes, boolean failed) {
+    }
+
+    /**
+     * @param solved
+     *      {@code true} if the search found a solution, {@code false} otherwise
+     */
+    default void solveEnded(boolean solved) {
+    }
+}
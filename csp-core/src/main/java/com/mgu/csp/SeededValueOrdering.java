@@ -0,0 +1,54 @@
+package com.mgu.csp;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This {@code ValueOrdering} tries the value that a variable holds in a given seed {@link Assignment} first, e.g.
+ * in the best assignment that a {@link LocalSearchSolver} has found. The remaining domain values retain the order
+ * of the underlying {@link ValueOrdering}. Thus, a complete solver starts off from the region of the state space
+ * that the local search deemed most promising.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class SeededValueOrdering<Type> implements ValueOrdering<Type> {
+
+    private final Assignment<Type> seed;
+
+    private final ValueOrdering<Type> valueOrdering;
+
+    /**
+     * @param seed
+     *      {@link Assignment} whose values are tried first
+     */
+    public SeededValueOrdering(final Assignment<Type> seed) {
+        this(seed, new ValueOrdering<Type>() {});
+    }
+
+    /**
+     * @param seed
+     *      {@link Assignment} whose values are tried first
+     * @param valueOrdering
+     *      {@link ValueOrdering} that decides on the order of the remaining domain values
+     */
+    public SeededValueOrdering(final Assignment<Type> seed, final ValueOrdering<Type> valueOrdering) {
+        this.seed = seed;
+        this.valueOrdering = valueOrdering;
+    }
+
+    @Override
+    public Set<Type> orderedDomain(final Variable<Type> variable, final Assignment<Type> assignment, final Set<Constraint> constraints) {
+        final Set<Type> domain = valueOrdering.orderedDomain(variable, assignment, constraints);
+        final Variable<Type> seededVariable = seed.variableOf(variable.identity());
+        if (seededVariable == null || !seededVariable.isAssigned() || !domain.contains(seededVariable.valueOf())) {
+            return domain;
+        }
+        final Set<Type> orderedDomain = new LinkedHashSet<>();
+        orderedDomain.add(seededVariable.valueOf());
+        orderedDomain.addAll(domain);
+        return orderedDomain;
+    }
+}
@@ -0,0 +1,181 @@
+package com.mgu.csp;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A hash-consed, immutable domain of values. All domains that have the same values and that descend from equal
+ * initial domains are represented by the same {@code SharedDomain} instance. Initial domains are equal only if
+ * they hold the same values in the same iteration order, and removing values retains the order of the remaining
+ * ones. Thus, a domain always iterates its values in the order of the initial domain it descends from, which is
+ * the order that value orderings rely on.
+ *
+ * Interned domains are organized in families. A family comprises an initial domain and those of its subsets that
+ * have been derived from it and that are still in use. Every member of a family keeps the family alive, whereas
+ * the global table of families only references them weakly, and a family only references its members weakly.
+ * Thus, a derived domain is released as soon as no {@link Variable} refers to it anymore, so the number of
+ * interned domains follows the number of live search states rather than the number of states ever visited, and
+ * the domains of a CSP are released along with its last {@code Variable}.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+final class SharedDomain<Type> extends AbstractSet<Type> {
+
+    private static final Map<List<?>, FamilyReference> FAMILIES = new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<Family<?>> RELEASED_FAMILIES = new ReferenceQueue<>();
+
+    private final Set<Type> values;
+
+    private final int hashCode;
+
+    private final Family<Type> family;
+
+    private SharedDomain(final Set<Type> values, final Family<Type> family) {
+        this.values = values;
+        this.hashCode = values.hashCode();
+        this.family = family;
+    }
+
+    @Override
+    public Iterator<Type> iterator() {
+        return values.iterator();
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean contains(final Object value) {
+        return values.contains(value);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * @param value
+     *      the value that ought to be removed from this domain
+     * @return
+     *      the canonical instance of this domain without the given value, or this instance if it does not
+     *      contain the given value
+     */
+    SharedDomain<Type> without(final Type value) {
+        if (!values.contains(value)) {
+            return this;
+        }
+        final Set<Type> remainingValues = new LinkedHashSet<>(values);
+        remainingValues.remove(value);
+        return family.intern(Collections.unmodifiableSet(remainingValues));
+    }
+
+    /**
+     * @param values
+     *      the values of a domain
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      the canonical instance of a domain with the given values
+     */
+    @SuppressWarnings("unchecked")
+    static <Type> SharedDomain<Type> of(final Set<Type> values) {
+        if (values instanceof SharedDomain) {
+            return (SharedDomain<Type>) values;
+        }
+        expungeReleasedFamilies();
+        final Set<Type> copyOfValues = Collections.unmodifiableSet(new LinkedHashSet<>(values));
+        final List<Type> orderOfValues = Collections.unmodifiableList(new ArrayList<>(copyOfValues));
+        while (true) {
+            final Family<Type> candidate = new Family<>();
+            final FamilyReference reference = FAMILIES.computeIfAbsent(
+                    orderOfValues,
+                    key -> new FamilyReference(key, candidate, RELEASED_FAMILIES));
+            final Family<Type> family = (Family<Type>) reference.get();
+            if (family != null) {
+                return family.intern(copyOfValues);
+            }
+            FAMILIES.remove(reference.key, reference);
+        }
+    }
+
+    private static void expungeReleasedFamilies() {
+        FamilyReference reference;
+        while ((reference = (FamilyReference) RELEASED_FAMILIES.poll()) != null) {
+            FAMILIES.remove(reference.key, reference);
+        }
+    }
+
+    private static class Family<Type> {
+
+        private final Map<Set<Type>, MemberReference<Type>> members = new ConcurrentHashMap<>();
+
+        private final ReferenceQueue<SharedDomain<Type>> releasedMembers = new ReferenceQueue<>();
+
+        SharedDomain<Type> intern(final Set<Type> values) {
+            expungeReleasedMembers();
+            while (true) {
+                final MemberReference<Type> reference = members.get(values);
+                final SharedDomain<Type> member = reference == null ? null : reference.get();
+                if (member != null) {
+                    return member;
+                }
+                final SharedDomain<Type> candidate = new SharedDomain<>(values, this);
+                final MemberReference<Type> candidateReference = new MemberReference<>(values, candidate, releasedMembers);
+                if (reference == null
+                        ? members.putIfAbsent(values, candidateReference) == null
+                        : members.replace(values, reference, candidateReference)) {
+                    return candidate;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void expungeReleasedMembers() {
+            MemberReference<Type> reference;
+            while ((reference = (MemberReference<Type>) releasedMembers.poll()) != null) {
+                members.remove(reference.key, reference);
+            }
+        }
+    }
+
+    private static class MemberReference<Type> extends WeakReference<SharedDomain<Type>> {
+
+        private final Set<Type> key;
+
+        MemberReference(final Set<Type> key, final SharedDomain<Type> member, final ReferenceQueue<SharedDomain<Type>> queue) {
+            super(member, queue);
+            this.key = key;
+        }
+    }
+
+    private static class FamilyReference extends WeakReference<Family<?>> {
+
+        private final List<?> key;
+
+        FamilyReference(final List<?> key, final Family<?> family, final ReferenceQueue<Family<?>> queue) {
+            super(family, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+
+/**
+ * The outcome of counting the solutions of an {@link IntCSP} up to some limit (cf. {@link IntSolver#count}). Along
+ * with the number of solutions, it reports how many decisions the search took, i.e. how many values it tried for
+ * variables that propagation alone did not assign. A CSP that propagation solves without any decision is solved
+ * by forward checking alone.
+ *
+ * This class is immutable.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public final class SolutionCount {
+
+    private final int solutions;
+
+    private final long decisions;
+
+    private final int[] firstSolution;
+
+    SolutionCount(final int solutions, final long decisions, final int[] firstSolution) {
+        this.solutions = solutions;
+        this.decisions = decisions;
+        this.firstSolution = firstSolution;
+    }
+
+    /**
+     * @return
+     *      number of solutions found, which does not exceed the limit that the count has been bounded to
+     */
+    public int solutions() {
+        return solutions;
+    }
+
+    /**
+     * @return
+     *      {@code true} if the CSP has exactly one solution, provided that the count has been bounded to at least
+     *      two solutions
+     */
+    public boolean isUnique() {
+        return solutions == 1;
+    }
+
+    /**
+     * @return
+     *      number of values that the search tried for variables that have not been assigned by propagation
+     */
+    public long decisions() {
+        return decisions;
+    }
+
+    /**
+     * @return
+     *      the values of the variables of the first solution in the order of {@link IntCSP#variables()}, or an
+     *      empty {@code Optional} if the CSP has no solution
+     */
+    public Optional<int[]> firstSolution() {
+        return firstSolution == null ? Optional.empty() : Optional.of(firstSolution.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "SolutionCount{solutions=" + solutions + ", decisions=" + decisions + "}";
+    }
+}
@@ -0,0 +1,133 @@
+package com.mgu.csp;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bounded cache of solutions that is keyed by the {@link Fingerprint} of a CSP (cf. {@link CachingSolver}).
+ * It caches negative results as well, i.e. the knowledge that a CSP has no solution.
+ *
+ * If the cache is full, it evicts an entry according to its {@link Eviction} policy. It keeps track of the
+ * number of hits, misses and evictions. This class is thread-safe.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class SolveCache<Type> {
+
+    /**
+     * Determines which entry is evicted if the cache is full.
+     */
+    public enum Eviction {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used entry. Ties are broken in favour of the most recently used entry.
+         */
+        LFU
+    }
+
+    private final int capacity;
+
+    private final Eviction eviction;
+
+    private final LinkedHashMap<Fingerprint, Optional<Assignment<Type>>> entries;
+
+    private final Map<Fingerprint, Long> frequencies = new HashMap<>();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    /**
+     * @param capacity
+     *      maximum number of entries, must be positive
+     * @param eviction
+     *      policy that determines which entry is evicted if the cache is full
+     * @throws IllegalArgumentException
+     *      if {@code capacity} is not positive
+     */
+    public SolveCache(final int capacity, final Eviction eviction) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the cache must be positive, but was " + capacity + ".");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param fingerprint
+     *      {@link Fingerprint} of the CSP
+     * @return
+     *      {@code null} if there is no entry for the given {@link Fingerprint}, otherwise the cached result,
+     *      which is an empty {@code Optional} if the CSP is known to have no solution
+     */
+    public synchronized Optional<Assignment<Type>> get(final Fingerprint fingerprint) {
+        final Optional<Assignment<Type>> result = entries.get(fingerprint);
+        if (result == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        frequencies.merge(fingerprint, 1L, Long::sum);
+        return result;
+    }
+
+    /**
+     * @param fingerprint
+     *      {@link Fingerprint} of the CSP
+     * @param result
+     *      the result of solving the CSP, which is an empty {@code Optional} if it has no solution
+     */
+    public synchronized void put(final Fingerprint fingerprint, final Optional<Assignment<Type>> result) {
+        if (!entries.containsKey(fingerprint) && entries.size() >= capacity) {
+            evict();
+        }
+        entries.put(fingerprint, result);
+        frequencies.merge(fingerprint, 1L, Long::sum);
+    }
+
+    private void evict() {
+        Fingerprint victim = null;
+        if (eviction == Eviction.LRU) {
+            victim = entries.keySet().iterator().next();
+        } else {
+            long lowestFrequency = Long.MAX_VALUE;
+            for (Fingerprint candidate : entries.keySet()) {
+                final long frequency = frequencies.get(candidate);
+                if (frequency <= lowestFrequency) {
+                    lowestFrequency = frequency;
+                    victim = candidate;
+                }
+            }
+        }
+        entries.remove(victim);
+        frequencies.remove(victim);
+        evictions++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+
+/**
+ * A {@code Solver} implements a strategy to search the state space of a CSP for a solution, i.e. for an
+ * {@link Assignment} that is both complete and satisfies all constraints of the CSP.
+ *
+ * A search can be aborted by interrupting the thread that runs it, in which case the solver throws a
+ * {@link java.util.concurrent.CancellationException}.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public interface Solver<Type> {
+
+    /**
+     * Searches the state space of the given CSP starting off from its initial state (the initial assignment).
+     *
+     * @param csp
+     *      represents the CSP to solve
+     * @return
+     *      an {@link Assignment} that is completed, or an empty {@code Optional} if no such {@link Assignment}
+     *      can be found
+     */
+    Optional<Assignment<Type>> solve(CSP<Type> csp);
+}
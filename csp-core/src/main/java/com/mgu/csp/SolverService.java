@@ -0,0 +1,230 @@
+package com.mgu.csp;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs solves on a bounded pool of worker threads on behalf of a request-serving process. The service applies
+ * admission control: at most a fixed number of solves are in flight, while a bounded number of further solves
+ * wait in a queue. A solve is rejected right away if the queue is full, and fails with a {@link TimeoutException}
+ * if it waited in the queue for longer than the queue timeout. Once a solve has started, it is bound by its
+ * budget: if it exceeds its budget, it fails with a {@link TimeoutException} and its worker thread is interrupted,
+ * which aborts the search (cf. {@link Solver}). Thus, a burst of hard instances can neither occupy more threads
+ * than configured nor keep them busy indefinitely. If the solver fails with any exception or error, the solve
+ * fails with it as well.
+ *
+ * Budgets and cancellation act on the worker thread of a solve only. Solvers that hand work to other threads are
+ * not stopped by them. In particular, a {@link DecomposingSolver} that solves components in parallel runs them on
+ * the common {@link java.util.concurrent.ForkJoinPool}, whose threads are never interrupted, so such a solve keeps
+ * computing after it has timed out. Use a sequential {@code DecomposingSolver} within this service.
+ *
+ * Every solve yields a {@link CompletableFuture}. Cancelling the future removes a queued solve from the queue or
+ * interrupts a running one.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class SolverService implements AutoCloseable {
+
+    private final ThreadPoolExecutor workers;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final long queueTimeoutNanos;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param maximumInFlight
+     *      maximum number of solves that run concurrently, must be positive
+     * @param maximumQueued
+     *      maximum number of solves that wait for a worker thread, must be positive
+     * @param queueTimeout
+     *      maximum time a solve may wait for a worker thread
+     * @param unit
+     *      time unit of {@code queueTimeout}
+     */
+    public SolverService(final int maximumInFlight, final int maximumQueued, final long queueTimeout, final TimeUnit unit) {
+        this.workers = new ThreadPoolExecutor(
+                maximumInFlight,
+                maximumInFlight,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maximumQueued),
+                daemonThreads("csp-solver-"));
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads("csp-solver-timer-"));
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.queueTimeoutNanos = unit.toNanos(queueTimeout);
+    }
+
+    /**
+     * Submits a solve to this service.
+     *
+     * @param solver
+     *      the solver that is applied to the CSP
+     * @param csp
+     *      represents the CSP to solve
+     * @param budget
+     *      maximum time the solve may run once it has been started
+     * @param unit
+     *      time unit of {@code budget}
+     * @param <Type>
+     *      parameterized type of domain values
+     * @return
+     *      {@link CompletableFuture} that yields the result of the solve, or that fails with a
+     *      {@link RejectedExecutionException} if the solve has not been admitted, or with a {@link TimeoutException}
+     *      if the solve waited too long in the queue or exceeded its budget
+     */
+    public <Type> CompletableFuture<Optional<Assignment<Type>>> submit(
+            final Solver<Type> solver,
+            final CSP<Type> csp,
+            final long budget,
+            final TimeUnit unit) {
+        final Solve<Type> solve = new Solve<>(solver, csp, unit.toNanos(budget));
+        try {
+            workers.execute(solve);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            solve.result.completeExceptionally(e);
+            return solve.result;
+        }
+        final ScheduledFuture<?> queueTimer = timer.schedule(
+                () -> {
+                    if (solve.abandonIfQueued()) {
+                        workers.remove(solve);
+                        solve.result.completeExceptionally(new TimeoutException("The solve waited too long for a worker thread."));
+                    }
+                },
+                queueTimeoutNanos,
+                TimeUnit.NANOSECONDS);
+        solve.result.whenComplete((result, failure) -> {
+            queueTimer.cancel(false);
+            if (solve.abandonIfQueued()) {
+                workers.remove(solve);
+            } else {
+                solve.interruptUnlessCurrent();
+            }
+        });
+        return solve.result;
+    }
+
+    /**
+     * @return
+     *      number of solves that are currently running
+     */
+    public int inFlight() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * @return
+     *      number of solves that are currently waiting for a worker thread
+     */
+    public int queued() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * @return
+     *      number of solves that have been rejected, since the queue was full
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Interrupts all running solves and discards all queued ones.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    private final class Solve<Type> implements Runnable {
+
+        private final CompletableFuture<Optional<Assignment<Type>>> result = new CompletableFuture<>();
+
+        private final Solver<Type> solver;
+
+        private final CSP<Type> csp;
+
+        private final long budgetNanos;
+
+        private boolean started = false;
+
+        private boolean abandoned = false;
+
+        private Thread runner;
+
+        Solve(final Solver<Type> solver, final CSP<Type> csp, final long budgetNanos) {
+            this.solver = solver;
+            this.csp = csp;
+            this.budgetNanos = budgetNanos;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (abandoned || result.isDone()) {
+                    return;
+                }
+                started = true;
+                runner = Thread.currentThread();
+            }
+            final ScheduledFuture<?> budgetTimer = timer.schedule(
+                    () -> result.completeExceptionally(new TimeoutException("The solve exceeded its budget.")),
+                    budgetNanos,
+                    TimeUnit.NANOSECONDS);
+            try {
+                result.complete(solver.solve(csp));
+            } catch (CancellationException e) {
+                // the result has already been completed by whoever interrupted this solve
+                result.cancel(false);
+            } catch (Throwable e) {
+                // errors like a StackOverflowError of a deep search must fail the solve rather than leave it hanging
+                result.completeExceptionally(e);
+            } finally {
+                budgetTimer.cancel(false);
+                synchronized (this) {
+                    runner = null;
+                    // clear a pending interrupt, so that it does not leak into the next solve on this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized boolean abandonIfQueued() {
+            if (started || abandoned) {
+                return false;
+            }
+            abandoned = true;
+            return true;
+        }
+
+        synchronized void interruptUnlessCurrent() {
+            if (runner != null && runner != Thread.currentThread()) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
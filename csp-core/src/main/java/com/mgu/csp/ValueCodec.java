@@ -0,0 +1,59 @@
+package com.mgu.csp;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@code ValueCodec} writes domain values to and reads them from a binary stream, e.g. for sending partial
+ * {@link Assignment}s to other processes (cf. {@link CubeCoordinator}).
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public interface ValueCodec<Type> {
+
+    void write(DataOutput output, Type value) throws IOException;
+
+    Type read(DataInput input) throws IOException;
+
+    /**
+     * @return
+     *      a {@code ValueCodec} that writes integers as zig-zag encoded variable-length quantities, so that small
+     *      values of either sign take a single byte
+     */
+    static ValueCodec<Integer> integers() {
+        return new ValueCodec<Integer>() {
+            @Override
+            public void write(final DataOutput output, final Integer value) throws IOException {
+                Varints.write(output, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+            }
+
+            @Override
+            public Integer read(final DataInput input) throws IOException {
+                final int zigZag = (int) Varints.read(input);
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        };
+    }
+
+    /**
+     * @return
+     *      a {@code ValueCodec} that writes strings in modified UTF-8
+     */
+    static ValueCodec<String> strings() {
+        return new ValueCodec<String>() {
+            @Override
+            public void write(final DataOutput output, final String value) throws IOException {
+                output.writeUTF(value);
+            }
+
+            @Override
+            public String read(final DataInput input) throws IOException {
+                return input.readUTF();
+            }
+        };
+    }
+}
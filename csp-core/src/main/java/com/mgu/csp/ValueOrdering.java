@@ -34,4 +34,27 @@ public interface ValueOrdering<Type> {
     default Set<Type> orderedDomain(Variable<Type> variable, Set<Constraint> constraints) {
         return variable.domain();
     }
+
+    /**
+     * Orders the remaining set of domain values of the given {@link Variable} with regard
+     * to the implemented strategy, taking the current state of the CSP into account. This is
+     * the method that solvers call.
+     *
+     * The default implementation ignores the given {@link Assignment} and delegates to
+     * {@link #orderedDomain(Variable, Set)}.
+     *
+     * @param variable
+     *      this is the variable whose domain shall be ordered with regard to the
+     *      implemented strategy
+     * @param assignment
+     *      represents the current state of a CSP
+     * @param constraints
+     *      {@code Set} of {@link Constraint}s of a CSP that this value ordering strategy
+     *      can make use of
+     * @return
+     *      ordered {@code Set} of domain values
+     */
+    default Set<Type> orderedDomain(Variable<Type> variable, Assignment<Type> assignment, Set<Constraint> constraints) {
+        return orderedDomain(variable, constraints);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.mgu.csp;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Probes every value of every unassigned variable: the value is assigned tentatively, and it is removed if the
+ * probe fails. This is repeated until no value can be removed any more, since removing a value may render others
+ * unsupported. The {@link Mode} decides how far a probe follows its tentative assignment.
+ *
+ * @param <Type>
+ *     parameterized type of domain values
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class ValueProbing<Type> extends ProbingPreprocessor<Type> {
+
+    public enum Mode {
+        /**
+         * A probe fails if the tentative assignment leaves the CSP inconsistent after forward checking. This
+         * enforces singleton consistency with respect to forward checking.
+         */
+        SINGLETON_ARC_CONSISTENCY,
+        /**
+         * A probe follows the tentative assignment through: every variable whose domain has been reduced to a
+         * single value is assigned in turn, until no such variable is left or the assignment turns out to be
+         * inconsistent (a failed literal). This reveals failures that are several propagation steps away, which
+         * is typical for puzzles that require chains of deductions, at the expense of more expensive probes.
+         */
+        FAILED_LITERAL_PROBING
+    }
+
+    /**
+     * @param mode
+     *      decides how far a probe follows its tentative assignment
+     */
+    public ValueProbing(final Mode mode) {
+        super(mode == Mode.FAILED_LITERAL_PROBING);
+    }
+
+    @Override
+    Optional<Assignment<Type>> reduce(
+            final Assignment<Type> assignment,
+            final VariableIdentity identity,
+            final Set<Constraint> constraints,
+            final long deadline) {
+        final Iterable<Type> values = new ArrayList<>(assignment.variableOf(identity).domain());
+        return probe(assignment, identity, values, constraints, false, deadline);
+    }
+}
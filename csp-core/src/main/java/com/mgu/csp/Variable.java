@@ -1,13 +1,15 @@
 package com.mgu.csp;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 
 /**
  * Each variable X_i in a CSP has a non-empty domain D_i of possible values. Domain values are discrete and finite.
  * Variables can be part of a partial assignment.
  *
- * This class is immutable.
+ * This class is immutable. Domains are hash-consed, i.e. variables with equal domains share the same domain
+ * instance, and assigned variables share the empty domain. Restricting a variable thus allocates nothing but the
+ * restricted copy of the variable itself.
  *
  * @param <Type>
  *     parameterized type of domain values
@@ -65,9 +67,7 @@ public class Variable<Type> {
             // do nothing, since we already are in converged state
             return this;
         }
-        final Set<Type> shallowCopyOfDomain = new HashSet<>(domain);
-        shallowCopyOfDomain.remove(restrictByValue);
-        return new Variable<>(identity, assignedValue, shallowCopyOfDomain);
+        return new Variable<>(identity, assignedValue, SharedDomain.of(domain).without(restrictByValue));
     }
 
     /**
@@ -85,7 +85,7 @@ public class Variable<Type> {
             throw new IllegalStateException("Unable to assign value " + value + " to variable " + identity + ". " +
                                             "Value is not in the set of remaining domain values.");
         }
-        return new Variable<>(identity, value, new HashSet<>());
+        return new Variable<>(identity, value, Collections.emptySet());
     }
 
     @Override
@@ -106,12 +106,12 @@ public class Variable<Type> {
     public static <Type> Variable<Type> unassignedVariable(
             final VariableIdentity identity,
             final Set<Type> initialDomain) {
-        return new Variable<>(identity, null, initialDomain);
+        return new Variable<>(identity, null, SharedDomain.of(initialDomain));
     }
 
     public static <Type> Variable<Type> assignedVariable(
             final VariableIdentity identity,
             final Type assignedValue) {
-        return new Variable<>(identity, assignedValue, new HashSet<>());
+        return new Variable<>(identity, assignedValue, Collections.emptySet());
     }
 }
\ No newline at end of file
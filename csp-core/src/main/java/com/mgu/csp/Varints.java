@@ -0,0 +1,51 @@
+package com.mgu.csp;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads and writes non-negative integers as variable-length quantities: seven bits per byte, least significant
+ * group first, with the most significant bit of a byte set if more bytes follow. Small numbers thus take a single
+ * byte.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+final class Varints {
+
+    private Varints() {
+    }
+
+    static void write(final DataOutput output, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    /**
+     * @throws java.io.EOFException
+     *      if the input ends within the quantity
+     */
+    static long read(final DataInput input) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length quantity.");
+    }
+
+    static int readInt(final DataInput input) throws IOException {
+        final long value = read(input);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Variable-length quantity " + value + " exceeds the range of an int.");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArenaSolverTest {
+
+    @Test
+    public void solvingColoringCSPOffHeapShouldYieldSatisfiedAssignment() {
+        final Optional<Assignment<String>> solution = new ArenaSolver<String>().solve(new ColoringCSP());
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void solvingUnsatisfiableColoringCSPOffHeapShouldYieldNoSolution() {
+        assertFalse(new ArenaSolver<String>().solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void undoingTheTrailShouldRestoreDomainsAndAssignments() {
+        try (DomainArena arena = DomainArena.allocate(2, 70)) {
+            for (int value = 0; value < 70; value++) {
+                arena.initialize(0, value);
+                arena.initialize(1, value);
+            }
+            final int mark = arena.mark();
+            arena.remove(1, 65);
+            arena.assign(0, 66);
+
+            assertEquals(69, arena.size(1));
+            assertEquals(66, arena.assignedValue(0));
+            assertEquals(66, arena.nextValue(0, 0));
+
+            arena.undo(mark);
+
+            assertEquals(70, arena.size(0));
+            assertEquals(70, arena.size(1));
+            assertFalse(arena.isAssigned(0));
+            assertEquals(65, arena.nextValue(1, 65));
+        }
+    }
+
+    @Test
+    public void initializingDomainFromShiftedBitsetShouldSpanWordsAndKeepItsSize() {
+        try (DomainArena arena = DomainArena.allocate(1, 140)) {
+            arena.initialize(0, 60, new long[] { 0b1011L, 1L << 10 });
+            arena.initialize(0, 60);
+
+            assertEquals(4, arena.size(0));
+            assertEquals(60, arena.nextValue(0, 0));
+            assertEquals(61, arena.nextValue(0, 61));
+            assertEquals(63, arena.nextValue(0, 62));
+            assertEquals(134, arena.nextValue(0, 64));
+
+            final int mark = arena.mark();
+            arena.remove(0, 63);
+            arena.assign(0, 61);
+
+            assertEquals(1, arena.size(0));
+
+            arena.undo(mark);
+
+            assertEquals(4, arena.size(0));
+            assertTrue(arena.contains(0, 63));
+
+            arena.reset();
+
+            assertEquals(0, arena.size(0));
+            assertEquals(-1, arena.nextValue(0, 0));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AssignmentTest {
+
+    @Test
+    public void numberOfUnassignedVariablesShouldBeMaintainedAcrossDerivedAssignments() {
+        final ColoringCSP csp = new ColoringCSP();
+        final Assignment<String> initialAssignment = csp.initialAssignment();
+        final Assignment<String> restricted = initialAssignment.restrict(id("WA"), "red");
+        final Assignment<String> assigned = restricted.assign(restricted.variableOf(id("NT")), "green", csp.constraints());
+
+        assertEquals(7, initialAssignment.numberOfUnassignedVariables());
+        assertEquals(7, restricted.numberOfUnassignedVariables());
+        assertEquals(6, assigned.numberOfUnassignedVariables());
+        assertEquals(6, assigned.unassignedVariables().size());
+        assertEquals(6, assigned.unassignedVariables().stream().count());
+        assertFalse(assigned.unassignedVariables().contains(assigned.variableOf(id("NT"))));
+        assertTrue(assigned.unassignedVariables().contains(assigned.variableOf(id("WA"))));
+
+        final Assignment<String> merged = assigned.merge(initialAssignment.restrictTo(Collections.singleton(id("NT"))));
+        assertEquals(7, merged.numberOfUnassignedVariables());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void assigningAVariableThatIsAlreadyAssignedShouldFail() {
+        final ColoringCSP csp = new ColoringCSP();
+        final Assignment<String> initialAssignment = csp.initialAssignment();
+        final Variable<String> unassignedNT = initialAssignment.variableOf(id("NT"));
+        final Assignment<String> assigned = initialAssignment.assign(unassignedNT, "green", csp.constraints());
+
+        // the stale copy of NT is still unassigned, but NT is assigned within the derived assignment
+        assigned.assign(unassignedNT, "green", csp.constraints());
+    }
+
+    @Test
+    public void solvedAssignmentShouldBeComplete() {
+        final Assignment<String> solution = new DFSSolver<String>(new MinimumRemainingValue<>()).solve(new ColoringCSP()).get();
+
+        assertTrue(solution.isComplete());
+        assertTrue(solution.unassignedVariables().isEmpty());
+        assertEquals(0, solution.numberOfUnassignedVariables());
+    }
+}
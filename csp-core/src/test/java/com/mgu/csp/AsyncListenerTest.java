@@ -0,0 +1,92 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncListenerTest {
+
+    @Test
+    public void latestOnlyShouldAlwaysDeliverTheLastAssignmentEvenIfTheListenerIsSlow() {
+        final List<Assignment<String>> received = Collections.synchronizedList(new ArrayList<>());
+        final AsyncListener<String> listener = AsyncListener.latestOnly(assignment -> {
+            sleep(20);
+            received.add(assignment);
+        });
+        final List<Assignment<String>> published = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Assignment<String> assignment = new ColoringCSP().initialAssignment();
+            published.add(assignment);
+            listener.accept(assignment);
+        }
+        listener.close();
+
+        assertTrue(received.size() < published.size());
+        assertSame(published.get(published.size() - 1), received.get(received.size() - 1));
+        assertEquals(published.size(), listener.deliveredEvents() + listener.droppedEvents());
+    }
+
+    @Test
+    public void everyNthShouldOnlyDeliverSampledAssignments() {
+        final List<Assignment<String>> received = Collections.synchronizedList(new ArrayList<>());
+        final AsyncListener<String> listener = AsyncListener.everyNth(10, 100, received::add);
+        for (int i = 0; i < 100; i++) {
+            listener.accept(new ColoringCSP().initialAssignment());
+        }
+        listener.close();
+
+        assertEquals(10, received.size());
+        assertEquals(0, listener.droppedEvents());
+    }
+
+    @Test
+    public void failingListenerShouldNotStopDeliveryOfLaterEvents() {
+        final List<Assignment<String>> received = Collections.synchronizedList(new ArrayList<>());
+        final AsyncListener<String> listener = new AsyncListener<>(
+                assignment -> {
+                    if (received.isEmpty()) {
+                        received.add(assignment);
+                        throw new IllegalStateException("The listener fails on its first event.");
+                    }
+                    received.add(assignment);
+                },
+                10,
+                AsyncListener.Overflow.DROP_NEWEST,
+                1);
+        for (int i = 0; i < 5; i++) {
+            listener.accept(new ColoringCSP().initialAssignment());
+        }
+        listener.close();
+
+        assertEquals(5, received.size());
+        assertEquals(1, listener.failedEvents());
+        assertEquals(4, listener.deliveredEvents());
+    }
+
+    @Test
+    public void eventsThatArriveAfterCloseShouldBeIgnored() {
+        final List<Assignment<String>> received = Collections.synchronizedList(new ArrayList<>());
+        final AsyncListener<String> listener = AsyncListener.everyNth(1, 10, received::add);
+        listener.accept(new ColoringCSP().initialAssignment());
+        listener.close();
+        listener.accept(new ColoringCSP().initialAssignment());
+
+        assertEquals(1, received.size());
+        assertEquals(1, listener.deliveredEvents());
+        assertEquals(0, listener.droppedEvents());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingSolverTest {
+
+    @Test
+    public void fingerprintShouldNotDependOnConstructionOrder() {
+        final ColoringCSP csp = new ColoringCSP();
+        final Assignment<String> a = csp.initialAssignment()
+                .restrict(id("WA"), "red")
+                .restrict(id("NT"), "green");
+        final Assignment<String> b = csp.initialAssignment()
+                .restrict(id("NT"), "green")
+                .restrict(id("WA"), "red");
+
+        assertEquals(Fingerprint.of(a, csp.constraints()), Fingerprint.of(b, csp.constraints()));
+        assertNotEquals(Fingerprint.of(a), Fingerprint.of(csp.initialAssignment()));
+    }
+
+    @Test
+    public void fingerprintShouldTellConstraintsOfSameClassWithDifferentParametersApart() {
+        final OrderedPairCSP xBeforeY = new OrderedPairCSP(id("X"), id("Y"));
+        final OrderedPairCSP yBeforeX = new OrderedPairCSP(id("Y"), id("X"));
+
+        assertNotEquals(
+                Fingerprint.of(xBeforeY.initialAssignment(), xBeforeY.constraints()),
+                Fingerprint.of(yBeforeX.initialAssignment(), yBeforeX.constraints()));
+    }
+
+    @Test
+    public void fingerprintsOfDifferentStatesShouldNotBeEqualEvenIfTheirHashesCollide() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        final Fingerprint aa = Fingerprint.of(singleAssignedVariable("Aa"));
+        final Fingerprint bb = Fingerprint.of(singleAssignedVariable("BB"));
+
+        assertEquals(aa.hashCode(), bb.hashCode());
+        assertNotEquals(aa, bb);
+    }
+
+    @Test
+    public void cachingSolverShouldNotServeSolutionOfCSPWithDifferentConstraints() {
+        final CachingSolver<Integer> solver = new CachingSolver<>(new DFSSolver<>(), new SolveCache<>(10, SolveCache.Eviction.LRU));
+        final Assignment<Integer> xBeforeY = solver.solve(new OrderedPairCSP(id("X"), id("Y"))).get();
+        final Assignment<Integer> yBeforeX = solver.solve(new OrderedPairCSP(id("Y"), id("X"))).get();
+
+        assertTrue(xBeforeY.valueOf(id("X")) < xBeforeY.valueOf(id("Y")));
+        assertTrue(yBeforeX.valueOf(id("Y")) < yBeforeX.valueOf(id("X")));
+        assertEquals(2, solver.cache().misses());
+        assertEquals(0, solver.cache().hits());
+    }
+
+    @Test
+    public void solvingIdenticalCSPTwiceShouldBeServedFromCache() {
+        final CachingSolver<String> solver = new CachingSolver<>(new DFSSolver<>(), new SolveCache<>(10, SolveCache.Eviction.LRU));
+        final Optional<Assignment<String>> first = solver.solve(new ColoringCSP());
+        final Optional<Assignment<String>> second = solver.solve(new ColoringCSP());
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, solver.cache().misses());
+        assertEquals(1, solver.cache().hits());
+    }
+
+    @Test
+    public void cacheShouldEvictEntriesBeyondItsCapacity() {
+        final CachingSolver<String> solver = new CachingSolver<>(new DFSSolver<>(), new SolveCache<>(1, SolveCache.Eviction.LFU));
+        solver.solve(new ColoringCSP());
+        solver.solve(new ColoringCSP("red", "green"));
+
+        assertEquals(1, solver.cache().size());
+        assertEquals(1, solver.cache().evictions());
+    }
+
+    @Test
+    public void recordingNogoodsShouldNotChangeTheOutcomeOfTheSearch() {
+        final DFSSolver<String> solver = new DFSSolver<>(new MinimumRemainingValue<>());
+        solver.recordNogoods(1000);
+
+        assertTrue(solver.solve(new ColoringCSP()).isPresent());
+        assertFalse(solver.solve(new ColoringCSP("red", "green")).isPresent());
+        // the lexicographic constraint keeps the values of its assigned variables in the residual problem
+        assertTrue(new DFSSolver<Integer>().solve(new OrderedPairCSP(id("X"), id("Y"))).isPresent());
+        final DFSSolver<Integer> recordingSolver = new DFSSolver<>();
+        recordingSolver.recordNogoods(1000);
+        assertTrue(recordingSolver.solve(new OrderedPairCSP(id("X"), id("Y"))).isPresent());
+    }
+
+    @Test
+    public void nogoodOfResidualProblemShouldBeHitAfterAnIndependentPartHasBeenSolvedDifferently() {
+        // refuting the triangle after the first coloring of a pair refutes it for the other coloring as well
+        final PairsBeforeTriangleCSP csp = new PairsBeforeTriangleCSP(8);
+
+        final int nodesWithoutNogoods = nodesExploredBy(new DFSSolver<>(PairsBeforeTriangleCSP.BY_NAME), csp);
+        final DFSSolver<String> solver = new DFSSolver<>(PairsBeforeTriangleCSP.BY_NAME);
+        solver.recordNogoods(1000);
+        final int nodesWithNogoods = nodesExploredBy(solver, csp);
+
+        assertTrue(nodesWithoutNogoods >= 1 << 8);
+        assertTrue(nodesWithNogoods <= 2 * 2 * 8 + 3);
+    }
+
+    private static int nodesExploredBy(final DFSSolver<String> solver, final CSP<String> csp) {
+        final AtomicInteger nodes = new AtomicInteger();
+        solver.addListener(assignment -> nodes.incrementAndGet());
+        assertFalse(solver.solve(csp).isPresent());
+        return nodes.get();
+    }
+
+    private static Assignment<String> singleAssignedVariable(final String value) {
+        final Map<VariableIdentity, Variable<String>> variables = new HashMap<>();
+        variables.put(id("X"), Variable.assignedVariable(id("X"), value));
+        return Assignment.initialAssignment(variables);
+    }
+
+    /**
+     * Two different variables over { 1, 2 }, where the first must be lexicographically smaller than the second.
+     */
+    private static class OrderedPairCSP extends CSP<Integer> {
+
+        private final VariableIdentity smaller;
+
+        private final VariableIdentity larger;
+
+        OrderedPairCSP(final VariableIdentity smaller, final VariableIdentity larger) {
+            this.smaller = smaller;
+            this.larger = larger;
+        }
+
+        @Override
+        protected Assignment<Integer> initialAssignment() {
+            final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+            for (VariableIdentity identity : Arrays.asList(smaller, larger)) {
+                variables.put(identity, Variable.unassignedVariable(identity, new LinkedHashSet<>(Arrays.asList(2, 1))));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            constraints.add(AllDiff.on(smaller, larger));
+            constraints.add(new LexLeader(Collections.singletonList(smaller), Collections.singletonList(larger)));
+            return constraints;
+        }
+    }
+
+    /**
+     * Pairs of variables over two colors, which can be colored in two ways each, followed by a triangle, which
+     * cannot be colored at all. The variables are picked by name, so the search colors the pairs first.
+     */
+    private static class PairsBeforeTriangleCSP extends CSP<String> {
+
+        static final VariableOrdering<String> BY_NAME = new VariableOrdering<String>() {
+            @Override
+            public Variable<String> selectUnassignedVariable(final Assignment<String> assignment) {
+                return assignment
+                        .unassignedVariables()
+                        .stream()
+                        .min(Comparator.comparing(variable -> variable.identity().toString()))
+                        .get();
+            }
+        };
+
+        private final int numberOfPairs;
+
+        PairsBeforeTriangleCSP(final int numberOfPairs) {
+            this.numberOfPairs = numberOfPairs;
+        }
+
+        @Override
+        protected Assignment<String> initialAssignment() {
+            final Map<VariableIdentity, Variable<String>> variables = new HashMap<>();
+            final Set<String> colors = new LinkedHashSet<>(Arrays.asList("red", "green"));
+            for (VariableIdentity identity : identities()) {
+                variables.put(identity, Variable.unassignedVariable(identity, colors));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            for (int pair = 0; pair < numberOfPairs; pair++) {
+                constraints.add(AllDiff.on(id(String.format("P%02da", pair)), id(String.format("P%02db", pair))));
+            }
+            constraints.add(AllDiff.on(id("T0"), id("T1"), id("T2")));
+            return constraints;
+        }
+
+        private Set<VariableIdentity> identities() {
+            final Set<VariableIdentity> identities = new HashSet<>();
+            for (int pair = 0; pair < numberOfPairs; pair++) {
+                identities.add(id(String.format("P%02da", pair)));
+                identities.add(id(String.format("P%02db", pair)));
+            }
+            identities.addAll(Arrays.asList(id("T0"), id("T1"), id("T2")));
+            return identities;
+        }
+    }
+}
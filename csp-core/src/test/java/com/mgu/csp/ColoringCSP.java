@@ -1,7 +1,9 @@
 package com.mgu.csp;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -22,6 +24,16 @@ import static com.mgu.csp.VariableIdentity.id;
  */
 public class ColoringCSP extends CSP<String> {
 
+    private final Set<String> colors;
+
+    public ColoringCSP() {
+        this("red", "green", "blue");
+    }
+
+    public ColoringCSP(final String... colors) {
+        this.colors = new LinkedHashSet<>(Arrays.asList(colors));
+    }
+
     @Override
     protected Assignment<String> initialAssignment() {
         final Map<VariableIdentity, Variable<String>> variableAssignments =
@@ -59,6 +71,6 @@ public class ColoringCSP extends CSP<String> {
     }
 
     private Set<String> initialDomain() {
-        return new HashSet<String>() {{ add("red"); add("green"); add("blue");}};
+        return new LinkedHashSet<>(colors);
     }
 }
\ No newline at end of file
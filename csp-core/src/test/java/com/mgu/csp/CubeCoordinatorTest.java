@@ -0,0 +1,202 @@
+package com.mgu.csp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CubeCoordinatorTest {
+
+    private final List<CubeWorker<String>> workers = new ArrayList<>();
+
+    @After
+    public void closeWorkers() throws IOException {
+        for (CubeWorker<String> worker : workers) {
+            worker.close();
+        }
+    }
+
+    @Test
+    public void coordinatorShouldFindSolutionOnWorkers() {
+        final ColoringCSP csp = new ColoringCSP();
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Arrays.asList(startWorker(csp), startWorker(csp)),
+                ValueCodec.strings(),
+                new MinimumRemainingValue<>(),
+                2);
+
+        final Optional<Assignment<String>> solution = coordinator.solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(csp.isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void coordinatorShouldReportUnsatisfiableCSPOnceAllCubesHaveBeenRefuted() {
+        final CycleCSP csp = new CycleCSP(9, "red", "green");
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Arrays.asList(startWorker(csp), startWorker(csp)),
+                ValueCodec.strings(),
+                new MinimumRemainingValue<>(),
+                1);
+
+        assertFalse(coordinator.solve(csp).isPresent());
+    }
+
+    @Test
+    public void cubesOfFailedWorkerShouldBeTakenOverByRemainingWorkers() throws IOException {
+        final ColoringCSP csp = new ColoringCSP();
+        final InetSocketAddress unreachable;
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            unreachable = new InetSocketAddress(InetAddress.getLoopbackAddress(), closed.getLocalPort());
+        }
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Arrays.asList(unreachable, startWorker(csp)),
+                ValueCodec.strings());
+
+        assertTrue(coordinator.solve(csp).isPresent());
+    }
+
+    @Test(timeout = 30_000)
+    public void cubeOfWorkerWhoseSolverDiesMidCubeShouldBeTakenOverByRemainingWorkers() {
+        // every cube has to be refuted, including the one that the failing worker has been handed
+        final CycleCSP csp = new CycleCSP(9, "red", "green");
+        final Solver<String> overflowingSolver = cube -> {
+            throw new StackOverflowError();
+        };
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Arrays.asList(startWorker(csp, overflowingSolver), startWorker(csp)),
+                ValueCodec.strings(),
+                new MinimumRemainingValue<>(),
+                1);
+
+        assertFalse(coordinator.solve(csp).isPresent());
+    }
+
+    @Test(timeout = 30_000)
+    public void coordinatorShouldFailInsteadOfHangingIfTheSolversOfAllWorkersDie() {
+        final ColoringCSP csp = new ColoringCSP();
+        final Solver<String> overflowingSolver = cube -> {
+            throw new StackOverflowError();
+        };
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Collections.singletonList(startWorker(csp, overflowingSolver)),
+                ValueCodec.strings());
+
+        try {
+            coordinator.solve(csp);
+            fail("Expected the solve to fail, since no worker is able to solve a cube.");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("The solvers of 1 workers failed on cube 0 ("));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void cubeThatBreaksEverySolverShouldFailTheSolveWithoutTakingDownTheWorkers() {
+        // the cube that colors some vertex red breaks every solver, while the other cube is refuted as usual
+        final CycleCSP csp = new CycleCSP(9, "red", "green");
+        final Solver<String> solver = new DFSSolver<>(new MinimumRemainingValue<>());
+        final Solver<String> solverThatBreaksOnRed = cube -> {
+            if (cube.initialAssignment().assignedValues().contains("red")) {
+                throw new StackOverflowError();
+            }
+            return solver.solve(cube);
+        };
+        final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                Arrays.asList(startWorker(csp, solverThatBreaksOnRed), startWorker(csp, solverThatBreaksOnRed)),
+                ValueCodec.strings(),
+                new MinimumRemainingValue<>(),
+                1);
+
+        try {
+            coordinator.solve(csp);
+            fail("Expected the solve to fail, since one cube breaks every solver.");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("The solvers of 2 workers failed on cube "));
+            assertTrue(e.getMessage().contains(" = red)."));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void coordinatorShouldGiveUpOnWorkerThatStopsAnsweringAfterTheCubeTimeout() throws IOException {
+        final ColoringCSP csp = new ColoringCSP();
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            // accepts the connection, but never answers, like a worker that hangs in the middle of a cube
+            final InetSocketAddress hangingWorker = new InetSocketAddress(InetAddress.getLoopbackAddress(), silent.getLocalPort());
+            final CubeCoordinator<String> coordinator = new CubeCoordinator<>(
+                    Collections.singletonList(hangingWorker),
+                    ValueCodec.strings(),
+                    new MinimumRemainingValue<>(),
+                    16,
+                    200,
+                    TimeUnit.MILLISECONDS);
+
+            coordinator.solve(csp);
+            fail("Expected the solve to fail, since the only worker does not answer.");
+        } catch (UncheckedIOException e) {
+            assertEquals(SocketTimeoutException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void integerCodecShouldRoundTripValuesOfEitherSign() throws IOException {
+        final ValueCodec<Integer> codec = ValueCodec.integers();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        for (int value : new int[] { 0, 9, -1, Integer.MAX_VALUE, Integer.MIN_VALUE }) {
+            codec.write(output, value);
+        }
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(Integer.valueOf(0), codec.read(input));
+        assertEquals(Integer.valueOf(9), codec.read(input));
+        assertEquals(Integer.valueOf(-1), codec.read(input));
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), codec.read(input));
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE), codec.read(input));
+        assertEquals(1 + 1 + 1 + 5 + 5, bytes.size());
+    }
+
+    private InetSocketAddress startWorker(final CSP<String> csp) {
+        return startWorker(csp, new DFSSolver<>(new MinimumRemainingValue<>()));
+    }
+
+    private InetSocketAddress startWorker(final CSP<String> csp, final Solver<String> solver) {
+        try {
+            final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            final CubeWorker<String> worker = new CubeWorker<>(csp, solver, ValueCodec.strings(), serverSocket);
+            workers.add(worker);
+            final Thread thread = new Thread(() -> {
+                try {
+                    worker.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mgu.csp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.mgu.csp.VariableIdentity.id;
+
+/**
+ * Colors the vertices of a cycle such that adjacent vertices have different colors. A cycle of odd length cannot
+ * be colored with two colors, but forward checking does not detect this before the second level of the search
+ * tree, so searching it takes discrepancies and backtracking.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class CycleCSP extends CSP<String> {
+
+    private final int length;
+
+    private final Set<String> colors;
+
+    public CycleCSP(final int length, final String... colors) {
+        this.length = length;
+        this.colors = new LinkedHashSet<>(Arrays.asList(colors));
+    }
+
+    @Override
+    protected Assignment<String> initialAssignment() {
+        final Map<VariableIdentity, Variable<String>> variables = new HashMap<>();
+        for (int vertex = 0; vertex < length; vertex++) {
+            variables.put(vertex(vertex), Variable.unassignedVariable(vertex(vertex), colors));
+        }
+        return Assignment.initialAssignment(variables);
+    }
+
+    @Override
+    protected Set<Constraint> constraints() {
+        final Set<Constraint> constraints = new HashSet<>();
+        for (int vertex = 0; vertex < length; vertex++) {
+            constraints.add(AllDiff.on(vertex(vertex), vertex((vertex + 1) % length)));
+        }
+        return constraints;
+    }
+
+    private static VariableIdentity vertex(final int vertex) {
+        return id("V" + vertex);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DFSSolverTest {
+
+    @Test
+    public void solvingCSPWhoseFirstBranchFailsShouldBacktrackIntoSiblingValues() {
+        final Optional<Assignment<Integer>> solution = new DFSSolver<Integer>().solve(new ProductCSP(6));
+
+        assertTrue(solution.isPresent());
+        assertEquals(6, solution.get().valueOf(id("X")) * solution.get().valueOf(id("Y")));
+    }
+
+    @Test
+    public void solvingUnsatisfiableCSPShouldYieldEmptyOptionalInsteadOfThrowing() {
+        assertFalse(new DFSSolver<Integer>().solve(new ProductCSP(7)).isPresent());
+    }
+
+    @Test
+    public void solvingCSPWhoseOnlySolutionAssignsEqualValuesShouldFindIt() {
+        final Optional<Assignment<Integer>> solution = new DFSSolver<Integer>().solve(new ProductCSP(4));
+
+        assertTrue(solution.isPresent());
+        assertEquals(2, (int) solution.get().valueOf(id("X")));
+        assertEquals(2, (int) solution.get().valueOf(id("Y")));
+    }
+
+    /**
+     * Two variables over { 1, 2, 3 } whose product must equal a given target. The constraint allows equal values,
+     * so it does not prune the value of one variable from the domain of the other, and it cannot rule out anything
+     * before both variables are assigned. Thus, assigning 1 first leads into a subtree without a solution.
+     */
+    private static class ProductCSP extends CSP<Integer> {
+
+        private final int target;
+
+        ProductCSP(final int target) {
+            this.target = target;
+        }
+
+        @Override
+        protected Assignment<Integer> initialAssignment() {
+            final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+            for (String name : Arrays.asList("X", "Y")) {
+                variables.put(id(name), Variable.unassignedVariable(id(name), new HashSet<>(Arrays.asList(1, 2, 3))));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            return Collections.singleton(new Constraint() {
+                @Override
+                public <Type> boolean isConsistent(final Set<Variable<Type>> dependentVariables) {
+                    return !dependentVariables.stream().allMatch(Variable::isAssigned) || isSatisfied(dependentVariables);
+                }
+
+                @Override
+                public <Type> boolean isSatisfied(final Set<Variable<Type>> dependentVariables) {
+                    int product = 1;
+                    for (Variable<Type> variable : dependentVariables) {
+                        if (!variable.isAssigned()) {
+                            return false;
+                        }
+                        product *= (Integer) variable.valueOf();
+                    }
+                    return product == target;
+                }
+
+                @Override
+                public Set<VariableIdentity> reliesOn() {
+                    return new HashSet<>(Arrays.asList(id("X"), id("Y")));
+                }
+
+                @Override
+                public boolean prunesAssignedValue() {
+                    return false;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DecomposingSolverTest {
+
+    @Test
+    public void constraintGraphOfColoringCSPShouldSeparateTasmaniaFromMainland() {
+        final ColoringCSP csp = new ColoringCSP();
+        final List<Set<VariableIdentity>> components = ConstraintGraph.connectedComponents(csp.initialAssignment(), csp.constraints());
+
+        assertEquals(2, components.size());
+        assertTrue(components.stream().anyMatch(component -> component.size() == 1 && component.contains(id("TS"))));
+    }
+
+    @Test
+    public void solvingColoringCSPByComponentsShouldYieldSatisfiedAssignment() {
+        final DecomposingSolver<String> solver = new DecomposingSolver<>(new DFSSolver<>());
+        final Optional<Assignment<String>> solution = solver.solve(new ColoringCSP());
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void solvingUnsatisfiableColoringCSPByComponentsShouldYieldNoSolution() {
+        final DecomposingSolver<String> solver = new DecomposingSolver<>(new DFSSolver<>());
+
+        assertFalse(solver.solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void solvingSequentiallyShouldNotStartAnotherComponentOnceOneHasNoSolution() {
+        final AtomicBoolean unsolvableComponentFound = new AtomicBoolean(false);
+        final AtomicInteger componentsSolvedAfterwards = new AtomicInteger();
+        final Solver<String> dfs = new DFSSolver<>();
+        final Solver<String> solver = component -> {
+            if (unsolvableComponentFound.get()) {
+                componentsSolvedAfterwards.incrementAndGet();
+            }
+            final Optional<Assignment<String>> solution = dfs.solve(component);
+            unsolvableComponentFound.compareAndSet(false, !solution.isPresent());
+            return solution;
+        };
+
+        assertFalse(new DecomposingSolver<>(solver, false).solve(new PairsAndTriangleCSP(10)).isPresent());
+        assertTrue(unsolvableComponentFound.get());
+        assertEquals(0, componentsSolvedAfterwards.get());
+    }
+
+    /**
+     * A number of independent pairs of variables over two colors, which can be colored, and a triangle, which cannot.
+     */
+    private static class PairsAndTriangleCSP extends CSP<String> {
+
+        private final int numberOfPairs;
+
+        PairsAndTriangleCSP(final int numberOfPairs) {
+            this.numberOfPairs = numberOfPairs;
+        }
+
+        @Override
+        protected Assignment<String> initialAssignment() {
+            final Map<VariableIdentity, Variable<String>> variables = new HashMap<>();
+            final Set<String> colors = new HashSet<>(Arrays.asList("red", "green"));
+            for (int pair = 0; pair < numberOfPairs; pair++) {
+                variables.put(id("X" + pair), Variable.unassignedVariable(id("X" + pair), colors));
+                variables.put(id("Y" + pair), Variable.unassignedVariable(id("Y" + pair), colors));
+            }
+            for (String name : Arrays.asList("A", "B", "C")) {
+                variables.put(id(name), Variable.unassignedVariable(id(name), colors));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            for (int pair = 0; pair < numberOfPairs; pair++) {
+                constraints.add(AllDiff.on(id("X" + pair), id("Y" + pair)));
+            }
+            constraints.add(AllDiff.on(id("A"), id("B"), id("C")));
+            return constraints;
+        }
+    }
+}
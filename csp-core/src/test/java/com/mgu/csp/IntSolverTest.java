@@ -0,0 +1,341 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IntSolverTest {
+
+    @Test
+    public void intVariableShouldStoreDomainsThatSpanMoreThanOneWord() {
+        final IntVariable variable = IntVariable.of("x", -3, 0, 61, 130);
+
+        assertEquals(4, variable.size());
+        assertEquals(-3, variable.min());
+        assertEquals(130, variable.max());
+        assertTrue(variable.contains(61));
+        assertFalse(variable.contains(62));
+        assertFalse(variable.contains(Integer.MIN_VALUE));
+        assertArrayEquals(new int[] { -3, 0, 61, 130 }, variable.values());
+        assertEquals(100, IntVariable.range("y", 1, 100).size());
+        assertTrue(IntVariable.fixed("z", 7).isFixed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intVariableShouldRejectEmptyRange() {
+        IntVariable.range("x", 2, 1);
+    }
+
+    @Test
+    public void solvingEightQueensShouldYieldNonAttackingQueens() {
+        final Optional<int[]> solution = new IntSolver().solve(new QueensCSP(8));
+
+        assertTrue(solution.isPresent());
+        final int[] rows = solution.get();
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = i + 1; j < rows.length; j++) {
+                assertTrue(rows[i] != rows[j]);
+                assertTrue(Math.abs(rows[i] - rows[j]) != j - i);
+            }
+        }
+    }
+
+    @Test
+    public void solvingThreeQueensShouldYieldNoSolution() {
+        assertFalse(new IntSolver().solve(new QueensCSP(3)).isPresent());
+    }
+
+    @Test
+    public void countingSolutionsShouldStopAtTheLimit() {
+        final SolutionCount count = new IntSolver().count(new QueensCSP(6), 2);
+
+        assertEquals(2, count.solutions());
+        assertFalse(count.isUnique());
+        assertTrue(count.decisions() > 0L);
+        assertTrue(count.firstSolution().isPresent());
+    }
+
+    @Test
+    public void countingSolutionsOfFullyPropagatedCSPShouldTakeNoDecisions() {
+        final IntCSP csp = new IntCSP() {
+            @Override
+            protected List<IntVariable> variables() {
+                return Arrays.asList(IntVariable.fixed("a", 1), IntVariable.of("b", 1, 2), IntVariable.range("c", 1, 3));
+            }
+
+            @Override
+            protected List<IntConstraint> constraints() {
+                return Arrays.asList(new IntAllDiff(0, 1, 2));
+            }
+        };
+
+        final SolutionCount count = new IntSolver().count(csp, 2);
+
+        assertTrue(count.isUnique());
+        assertEquals(0L, count.decisions());
+        assertArrayEquals(new int[] { 1, 2, 3 }, count.firstSolution().get());
+    }
+
+    @Test
+    public void solvingIntCSPWithNegativeValuesShouldYieldDistinctValues() {
+        final IntCSP csp = new IntCSP() {
+            @Override
+            protected List<IntVariable> variables() {
+                return Arrays.asList(IntVariable.range("a", -5, -3), IntVariable.of("b", -5, -4), IntVariable.fixed("c", -5));
+            }
+
+            @Override
+            protected List<IntConstraint> constraints() {
+                return Arrays.asList(new IntAllDiff(0, 1, 2));
+            }
+        };
+
+        assertArrayEquals(new int[] { -3, -4, -5 }, new IntSolver().solve(csp).get());
+    }
+
+    @Test
+    public void countingRepeatedlyWithTheSameSolverShouldNotCarryOverStateBetweenCSPs() {
+        final IntSolver solver = new IntSolver();
+        final IntCSP negativeValues = new IntCSP() {
+            @Override
+            protected List<IntVariable> variables() {
+                return Arrays.asList(IntVariable.range("a", -5, -3), IntVariable.range("b", -5, -3), IntVariable.range("c", -5, -3));
+            }
+
+            @Override
+            protected List<IntConstraint> constraints() {
+                return Arrays.asList(new IntAllDiff(0, 1, 2));
+            }
+        };
+
+        assertEquals(4, solver.count(new QueensCSP(6), 5).solutions());
+        assertEquals(5, solver.count(new QueensCSP(8), 5).solutions());
+        assertEquals(4, solver.count(new QueensCSP(6), 5).solutions());
+        assertEquals(0, solver.count(new QueensCSP(3), 5).solutions());
+        // same size as the previous CSP, but with a different offset of its values
+        assertEquals(5, solver.count(negativeValues, 5).solutions());
+        assertEquals(0, solver.count(new QueensCSP(3), 5).solutions());
+    }
+
+    @Test
+    public void solvingGenericIntegerCSPShouldDelegateToPrimitiveEngine() {
+        final LatinSquareCSP csp = new LatinSquareCSP(4, true);
+
+        final Optional<Assignment<Integer>> solution = new IntSolver().solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete());
+        assertTrue(csp.isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void solvingUnsatisfiableGenericIntegerCSPShouldYieldNoSolution() {
+        final CSP<Integer> csp = new CSP<Integer>() {
+            @Override
+            protected Assignment<Integer> initialAssignment() {
+                final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+                for (String name : Arrays.asList("a", "b", "c")) {
+                    variables.put(id(name), Variable.unassignedVariable(id(name), new HashSet<>(Arrays.asList(1, 2))));
+                }
+                return Assignment.initialAssignment(variables);
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return new HashSet<>(Arrays.asList(AllDiff.on(id("a"), id("b"), id("c"))));
+            }
+        };
+
+        assertFalse(new IntSolver().solve(csp).isPresent());
+    }
+
+    @Test
+    public void solvingGenericIntegerCSPWithWipedOutDomainShouldYieldNoSolution() {
+        final CSP<Integer> csp = genericCSP(Variable.unassignedVariable(id("a"), new HashSet<>()), AllDiff.on());
+
+        assertFalse(new IntSolver().solve(csp).isPresent());
+    }
+
+    @Test
+    public void convertingConstraintOnUnknownVariableShouldFailWithMessage() {
+        final CSP<Integer> csp = genericCSP(Variable.assignedVariable(id("a"), 1), AllDiff.on(id("a"), id("b")));
+
+        try {
+            IntCSP.of(csp);
+            fail("Expected the conversion to reject the constraint on variable b.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("variable b"));
+        }
+        try {
+            new LocalSearchSolver<Integer>().search(csp);
+            fail("Expected the local search to reject the constraint on variable b.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("variable b"));
+        }
+        try {
+            new ArenaSolver<Integer>().solve(csp);
+            fail("Expected the arena solver to reject the constraint on variable b.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("variable b"));
+        }
+    }
+
+    private static CSP<Integer> genericCSP(final Variable<Integer> variable, final Constraint constraint) {
+        return new CSP<Integer>() {
+            @Override
+            protected Assignment<Integer> initialAssignment() {
+                final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+                variables.put(variable.identity(), variable);
+                return Assignment.initialAssignment(variables);
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return new HashSet<>(Arrays.asList(constraint));
+            }
+        };
+    }
+
+    /**
+     * Places n queens on an n x n board, one per column, such that no two queens attack each other.
+     */
+    private static class QueensCSP extends IntCSP {
+
+        private final int n;
+
+        QueensCSP(final int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected List<IntVariable> variables() {
+            final List<IntVariable> variables = new ArrayList<>();
+            for (int column = 0; column < n; column++) {
+                variables.add(IntVariable.range("Q" + column, 0, n - 1));
+            }
+            return variables;
+        }
+
+        @Override
+        protected List<IntConstraint> constraints() {
+            final List<IntConstraint> constraints = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    constraints.add(new NoAttack(i, j));
+                }
+            }
+            return constraints;
+        }
+    }
+
+    private static class NoAttack implements IntConstraint {
+
+        private final int[] scope;
+
+        NoAttack(final int left, final int right) {
+            this.scope = new int[] { left, right };
+        }
+
+        @Override
+        public int[] scope() {
+            return scope;
+        }
+
+        @Override
+        public boolean propagate(final IntDomains domains, final int assignedVariable) {
+            final int other = assignedVariable == scope[0] ? scope[1] : scope[0];
+            final int distance = scope[1] - scope[0];
+            final int row = domains.valueOf(assignedVariable);
+            if (domains.isAssigned(other)) {
+                final int otherRow = domains.valueOf(other);
+                return otherRow != row && Math.abs(otherRow - row) != distance;
+            }
+            domains.remove(other, row);
+            domains.remove(other, row - distance);
+            domains.remove(other, row + distance);
+            return true;
+        }
+
+        @Override
+        public boolean isSatisfied(final IntDomains domains) {
+            final int left = domains.valueOf(scope[0]);
+            final int right = domains.valueOf(scope[1]);
+            return left != right && Math.abs(left - right) != scope[1] - scope[0];
+        }
+    }
+
+    /**
+     * Fills an n x n grid with the values 1 to n such that every row and every column holds each value once.
+     * Optionally, the first two rows are ordered lexicographically, which exercises a constraint that is not an
+     * {@link AllDiff}.
+     */
+    private static class LatinSquareCSP extends CSP<Integer> {
+
+        private final int n;
+
+        private final boolean breakSymmetry;
+
+        LatinSquareCSP(final int n, final boolean breakSymmetry) {
+            this.n = n;
+            this.breakSymmetry = breakSymmetry;
+        }
+
+        @Override
+        protected Assignment<Integer> initialAssignment() {
+            final Set<Integer> domain = new HashSet<>();
+            for (int value = 1; value <= n; value++) {
+                domain.add(value);
+            }
+            final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+            for (int row = 0; row < n; row++) {
+                for (int column = 0; column < n; column++) {
+                    variables.put(cell(row, column), Variable.unassignedVariable(cell(row, column), domain));
+                }
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            for (int line = 0; line < n; line++) {
+                final List<VariableIdentity> row = new ArrayList<>();
+                final List<VariableIdentity> column = new ArrayList<>();
+                for (int position = 0; position < n; position++) {
+                    row.add(cell(line, position));
+                    column.add(cell(position, line));
+                }
+                constraints.add(AllDiff.on(row.toArray(new VariableIdentity[0])));
+                constraints.add(AllDiff.on(column.toArray(new VariableIdentity[0])));
+            }
+            if (breakSymmetry) {
+                final List<VariableIdentity> first = new ArrayList<>();
+                final List<VariableIdentity> second = new ArrayList<>();
+                for (int column = 0; column < n; column++) {
+                    first.add(cell(0, column));
+                    second.add(cell(1, column));
+                }
+                constraints.add(new LexLeader(second, first));
+            }
+            return constraints;
+        }
+
+        private static VariableIdentity cell(final int row, final int column) {
+            return id("C" + row + column);
+        }
+    }
+}
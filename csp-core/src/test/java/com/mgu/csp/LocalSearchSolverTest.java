@@ -0,0 +1,129 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocalSearchSolverTest {
+
+    @Test
+    public void minConflictsShouldSolveColoringCSP() {
+        final Optional<Assignment<String>> solution = new LocalSearchSolver<String>().solve(new ColoringCSP());
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void minConflictsShouldGiveUpOnUnsatisfiableColoringCSP() {
+        final LocalSearchSolver<String> solver = new LocalSearchSolver<>(1_000, 5, 0.1, 42L);
+
+        assertFalse(solver.solve(new ColoringCSP("red", "green")).isPresent());
+        assertTrue(solver.search(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void hybridSolverShouldFallBackToCompleteSearch() {
+        final LocalSearchSolver<String> localSearch = new LocalSearchSolver<>(1, 5, 0.1, 42L);
+        final HybridSolver<String> solver = new HybridSolver<>(localSearch, new MinimumRemainingValue<>());
+
+        final Optional<Assignment<String>> solution = solver.solve(new ColoringCSP());
+
+        assertFalse("local search alone must not solve the CSP", localSearch.solve(new ColoringCSP()).isPresent());
+        assertTrue(solution.isPresent());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+        assertFalse(solver.solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void allDiffShouldCountEveryVariableThatSharesItsValueWithAnother() {
+        final AllDiff allDiff = AllDiff.on(id("A"), id("B"), id("C"), id("D"));
+        final Set<Variable<Integer>> variables = new HashSet<>(Arrays.asList(
+                Variable.assignedVariable(id("A"), 1),
+                Variable.assignedVariable(id("B"), 1),
+                Variable.assignedVariable(id("C"), 1),
+                Variable.assignedVariable(id("D"), 2)));
+
+        assertEquals(2, allDiff.violationsOf(variables));
+        assertEquals(0, allDiff.violationsOf(Collections.singleton(Variable.assignedVariable(id("A"), 1))));
+    }
+
+    @Test
+    public void minConflictsShouldSolveLatinSquareWhoseDomainsListTheirValuesInDifferentOrders() {
+        final CSP<Integer> csp = new RotatedLatinSquareCSP(5);
+
+        final Optional<Assignment<Integer>> solution = new LocalSearchSolver<Integer>(100_000, 5, 0.05, 7L).solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(csp.isSatisfied(solution.get()));
+        assertEquals(Integer.valueOf(3), solution.get().valueOf(id("0/0")));
+    }
+
+    /**
+     * A Latin square whose cells list the values 1 to n rotated by their column, so that the values of the
+     * variables of a row have different positions within their domains. The top left cell is fixed to 3, and a
+     * lexicographic constraint - which is not an {@link AllDiff} - orders two cells of different rows and columns.
+     */
+    private static class RotatedLatinSquareCSP extends CSP<Integer> {
+
+        private final int n;
+
+        RotatedLatinSquareCSP(final int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Assignment<Integer> initialAssignment() {
+            final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+            for (int row = 0; row < n; row++) {
+                for (int column = 0; column < n; column++) {
+                    final Set<Integer> domain = new LinkedHashSet<>();
+                    for (int value = 0; value < n; value++) {
+                        domain.add((value + column) % n + 1);
+                    }
+                    final VariableIdentity identity = cell(row, column);
+                    variables.put(identity, row == 0 && column == 0
+                            ? Variable.assignedVariable(identity, 3)
+                            : Variable.unassignedVariable(identity, domain));
+                }
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            for (int line = 0; line < n; line++) {
+                final List<VariableIdentity> row = new ArrayList<>();
+                final List<VariableIdentity> column = new ArrayList<>();
+                for (int position = 0; position < n; position++) {
+                    row.add(cell(line, position));
+                    column.add(cell(position, line));
+                }
+                constraints.add(AllDiff.on(row.toArray(new VariableIdentity[0])));
+                constraints.add(AllDiff.on(column.toArray(new VariableIdentity[0])));
+            }
+            constraints.add(new LexLeader(Collections.singletonList(cell(1, 2)), Collections.singletonList(cell(2, 1))));
+            return constraints;
+        }
+
+        private static VariableIdentity cell(final int row, final int column) {
+            return id(row + "/" + column);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PreprocessingSolverTest {
+
+    @Test
+    public void failedLiteralProbingShouldProveThatAnOddCycleIsNotTwoColorable() {
+        final CycleCSP csp = new CycleCSP(5, "red", "green");
+
+        assertTrue(preprocessor(new ValueProbing<>(ValueProbing.Mode.SINGLETON_ARC_CONSISTENCY)).preprocess(csp).isPresent());
+        assertFalse(preprocessor(new ValueProbing<>(ValueProbing.Mode.FAILED_LITERAL_PROBING)).preprocess(csp).isPresent());
+    }
+
+    @Test
+    public void boundsShavingShouldRemoveUnsupportedExtremeValues() {
+        final Optional<Assignment<Integer>> preprocessed = new PreprocessingSolver<>(new DFSSolver<Integer>())
+                .preprocessWith(BoundsShaving.naturalOrder(), 1, TimeUnit.SECONDS)
+                .preprocess(betweenTwoGivens());
+
+        assertTrue(preprocessed.isPresent());
+        assertEquals(Integer.valueOf(2), preprocessed.get().valueOf(id("X")));
+    }
+
+    @Test
+    public void preprocessingShouldNotChangeTheOutcomeOfTheSearch() {
+        final PreprocessingSolver<String> solver = new PreprocessingSolver<>(new DFSSolver<String>(new MinimumRemainingValue<>()))
+                .preprocessWith(new ValueProbing<>(ValueProbing.Mode.SINGLETON_ARC_CONSISTENCY), 1, TimeUnit.SECONDS)
+                .preprocessWith(new ValueProbing<>(ValueProbing.Mode.FAILED_LITERAL_PROBING), 1, TimeUnit.SECONDS);
+        final ColoringCSP csp = new ColoringCSP();
+
+        final Optional<Assignment<String>> solution = solver.solve(csp);
+        assertTrue(solution.isPresent());
+        assertTrue(csp.isSatisfied(solution.get()));
+        assertFalse(solver.solve(new CycleCSP(7, "red", "green")).isPresent());
+        assertTrue(solver.solve(new CycleCSP(6, "red", "green")).isPresent());
+    }
+
+    @Test
+    public void stageWithoutBudgetShouldLeaveTheAssignmentAsItIs() {
+        final CycleCSP csp = new CycleCSP(5, "red", "green");
+        final Optional<Assignment<String>> preprocessed = new PreprocessingSolver<>(new DFSSolver<String>())
+                .preprocessWith(new ValueProbing<>(ValueProbing.Mode.FAILED_LITERAL_PROBING), 0, TimeUnit.SECONDS)
+                .preprocess(csp);
+
+        assertTrue(preprocessed.isPresent());
+        assertEquals(5, preprocessed.get().numberOfUnassignedVariables());
+    }
+
+    private static PreprocessingSolver<String> preprocessor(final Preprocessor<String> preprocessor) {
+        return new PreprocessingSolver<>(new DFSSolver<String>()).preprocessWith(preprocessor, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * X has to differ from the givens Y = 1 and Z = 3, which leaves only the value in between.
+     */
+    private static CSP<Integer> betweenTwoGivens() {
+        return new CSP<Integer>() {
+            @Override
+            protected Assignment<Integer> initialAssignment() {
+                final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+                variables.put(id("X"), Variable.unassignedVariable(id("X"), new HashSet<>(Arrays.asList(1, 2, 3))));
+                variables.put(id("Y"), Variable.assignedVariable(id("Y"), 1));
+                variables.put(id("Z"), Variable.assignedVariable(id("Z"), 3));
+                return Assignment.initialAssignment(variables);
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                return new HashSet<>(Arrays.asList(AllDiff.on(id("X"), id("Y")), AllDiff.on(id("X"), id("Z"))));
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SearchStrategiesTest {
+
+    @Test
+    public void limitedDiscrepancySearchShouldSolveColoringCSP() {
+        assertSolves(new LDSSolver<>());
+    }
+
+    @Test
+    public void limitedDiscrepancySearchShouldReportUnsatisfiableColoringCSP() {
+        assertFalse(new LDSSolver<String>().solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void depthBoundedDiscrepancySearchShouldSolveColoringCSP() {
+        assertSolves(new DDSSolver<>());
+    }
+
+    @Test
+    public void depthBoundedDiscrepancySearchShouldReportUnsatisfiableColoringCSP() {
+        assertFalse(new DDSSolver<String>().solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void beamSearchShouldSolveColoringCSP() {
+        assertSolves(new BeamSolver<>(new MinimumRemainingValue<>(), new ValueOrdering<String>() {}, 3));
+    }
+
+    private static void assertSolves(final Solver<String> solver) {
+        final Optional<Assignment<String>> solution = solver.solve(new ColoringCSP());
+
+        assertTrue(solution.isPresent());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+    }
+}
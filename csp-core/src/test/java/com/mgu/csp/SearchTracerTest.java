@@ -0,0 +1,169 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SearchTracerTest {
+
+    @Test
+    public void replayedBinaryTraceShouldMatchTheTracedSearch() throws Exception {
+        final RecordingTracer direct = new RecordingTracer();
+        final DFSSolver<String> solver = new DFSSolver<>(new MinimumRemainingValue<>());
+        solver.trace(direct);
+        solver.solve(new ColoringCSP("red", "green"));
+
+        final ByteArrayOutputStream trace = new ByteArrayOutputStream();
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(trace)) {
+            solver.trace(writer);
+            solver.solve(new ColoringCSP("red", "green"));
+        }
+        final RecordingTracer replayed = new RecordingTracer();
+        BinaryTraceReader.replay(new ByteArrayInputStream(trace.toByteArray()), replayed);
+
+        assertEquals(direct.records, replayed.records);
+        assertTrue(replayed.records.contains("backtracked 0"));
+        assertEquals("solveEnded false", replayed.records.get(replayed.records.size() - 1));
+        assertEquals(replayed.records.size() - 1, replayed.elapsedTimes);
+    }
+
+    @Test
+    public void iterativeSolversShouldTraceTheirRestarts() {
+        final RecordingTracer tracer = new RecordingTracer();
+        final LDSSolver<String> solver = new LDSSolver<>();
+        solver.trace(tracer);
+
+        assertFalse(solver.solve(new CycleCSP(5, "red", "green")).isPresent());
+        assertTrue(tracer.records.contains("restarted 1"));
+        assertEquals("solveEnded false", tracer.records.get(tracer.records.size() - 1));
+    }
+
+    @Test
+    public void interruptedSearchShouldStillReportItsEnd() {
+        final RecordingTracer tracer = new RecordingTracer();
+        final DFSSolver<String> solver = new DFSSolver<>();
+        solver.trace(tracer);
+
+        Thread.currentThread().interrupt();
+        try {
+            solver.solve(new ColoringCSP());
+            fail("Expected the interrupted search to be aborted.");
+        } catch (CancellationException e) {
+            assertEquals("solveEnded false", tracer.records.get(tracer.records.size() - 1));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void valuePrunedBySeveralConstraintsShouldBeCountedOnce() {
+        final int[] prunes = new int[1];
+        final boolean[] branched = new boolean[1];
+        final DFSSolver<Integer> solver = new DFSSolver<>();
+        solver.trace(new SearchTracer() {
+            @Override
+            public void propagated(final Class<? extends Constraint> constraintType, final long nanos, final int prunedValues, final boolean failed) {
+                if (!branched[0]) {
+                    prunes[0] += prunedValues;
+                }
+            }
+
+            @Override
+            public void branched(final int depth, final VariableIdentity variable, final Object value, final boolean consistent) {
+                branched[0] = true;
+            }
+        });
+
+        assertTrue(solver.solve(new OverlappingAllDiffCSP()).isPresent());
+        // the first assignment prunes its value from the domains of the two other variables
+        assertEquals(2, prunes[0]);
+    }
+
+    @Test
+    public void disabledTracingShouldNotReportAnything() {
+        final RecordingTracer tracer = new RecordingTracer();
+        final DFSSolver<String> solver = new DFSSolver<>();
+        solver.trace(tracer);
+        solver.trace(SearchTracer.NONE);
+        solver.solve(new ColoringCSP());
+
+        assertFalse(tracer.records.iterator().hasNext());
+    }
+
+    private static class RecordingTracer implements BinaryTraceReader.Visitor {
+
+        private final List<String> records = new ArrayList<>();
+
+        private int elapsedTimes = 0;
+
+        @Override
+        public void solveStarted(final String solver) {
+            records.add("solveStarted " + solver);
+        }
+
+        @Override
+        public void branched(final int depth, final VariableIdentity variable, final Object value, final boolean consistent) {
+            records.add("branched " + depth + " " + variable + "=" + value + " " + consistent);
+        }
+
+        @Override
+        public void backtracked(final int depth) {
+            records.add("backtracked " + depth);
+        }
+
+        @Override
+        public void restarted(final int iteration) {
+            records.add("restarted " + iteration);
+        }
+
+        @Override
+        public void solveEnded(final boolean solved) {
+            records.add("solveEnded " + solved);
+        }
+
+        @Override
+        public void elapsed(final long nanos) {
+            elapsedTimes++;
+        }
+    }
+
+    /**
+     * Three variables over { 1, 2, 3 } with overlapping {@link AllDiff} constraints, so that every assignment
+     * prunes its value from some variable on behalf of more than one constraint.
+     */
+    private static class OverlappingAllDiffCSP extends CSP<Integer> {
+
+        @Override
+        protected Assignment<Integer> initialAssignment() {
+            final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+            for (String name : Arrays.asList("A", "B", "C")) {
+                variables.put(id(name), Variable.unassignedVariable(id(name), new HashSet<>(Arrays.asList(1, 2, 3))));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            final Set<Constraint> constraints = new HashSet<>();
+            constraints.add(AllDiff.on(id("A"), id("B")));
+            constraints.add(AllDiff.on(id("B"), id("C")));
+            constraints.add(AllDiff.on(id("A"), id("B"), id("C")));
+            return constraints;
+        }
+    }
+}
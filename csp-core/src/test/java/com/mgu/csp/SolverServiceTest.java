@@ -0,0 +1,102 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SolverServiceTest {
+
+    @Test
+    public void submittedSolveShouldYieldTheSolutionOfTheCSP() throws Exception {
+        try (SolverService service = new SolverService(2, 2, 1, TimeUnit.SECONDS)) {
+            final Optional<Assignment<String>> solution = service
+                    .submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS)
+                    .get(10, TimeUnit.SECONDS);
+
+            assertTrue(solution.isPresent());
+        }
+    }
+
+    @Test
+    public void solveThatExceedsItsBudgetShouldTimeOutAndReleaseItsWorker() throws Exception {
+        try (SolverService service = new SolverService(1, 1, 5, TimeUnit.SECONDS)) {
+            final CompletableFuture<Optional<Assignment<String>>> endless = service
+                    .submit(endlessSolver(new CountDownLatch(0)), new ColoringCSP(), 50, TimeUnit.MILLISECONDS);
+
+            assertFailsWith(TimeoutException.class, endless);
+            assertTrue(service.submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS)
+                    .get(10, TimeUnit.SECONDS)
+                    .isPresent());
+        }
+    }
+
+    @Test
+    public void solveShouldBeRejectedIfTheQueueIsFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        try (SolverService service = new SolverService(1, 1, 5, TimeUnit.SECONDS)) {
+            service.submit(endlessSolver(started), new ColoringCSP(), 5, TimeUnit.SECONDS);
+            started.await(5, TimeUnit.SECONDS);
+            service.submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS);
+
+            assertFailsWith(RejectedExecutionException.class,
+                    service.submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS));
+            assertEquals(1, service.rejected());
+        }
+    }
+
+    @Test
+    public void solveThatWaitsTooLongInTheQueueShouldTimeOut() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        try (SolverService service = new SolverService(1, 1, 50, TimeUnit.MILLISECONDS)) {
+            service.submit(endlessSolver(started), new ColoringCSP(), 5, TimeUnit.SECONDS);
+            started.await(5, TimeUnit.SECONDS);
+
+            assertFailsWith(TimeoutException.class,
+                    service.submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS));
+            assertEquals(0, service.queued());
+        }
+    }
+
+    @Test
+    public void solveWhoseSolverThrowsAnErrorShouldFailWithThatError() throws Exception {
+        try (SolverService service = new SolverService(1, 1, 5, TimeUnit.SECONDS)) {
+            final Solver<String> overflowingSolver = csp -> {
+                throw new StackOverflowError();
+            };
+
+            assertFailsWith(StackOverflowError.class,
+                    service.submit(overflowingSolver, new ColoringCSP(), 5, TimeUnit.SECONDS));
+            assertTrue(service.submit(new DFSSolver<>(), new ColoringCSP(), 5, TimeUnit.SECONDS)
+                    .get(10, TimeUnit.SECONDS)
+                    .isPresent());
+        }
+    }
+
+    private static void assertFailsWith(final Class<? extends Throwable> expected, final CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected the solve to fail with " + expected.getSimpleName() + ".");
+        } catch (ExecutionException e) {
+            assertEquals(expected, e.getCause().getClass());
+        }
+    }
+
+    private static Solver<String> endlessSolver(final CountDownLatch started) {
+        return csp -> {
+            started.countDown();
+            while (true) {
+                AbstractSolver.abortIfInterrupted();
+            }
+        };
+    }
+}
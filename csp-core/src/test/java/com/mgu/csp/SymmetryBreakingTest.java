@@ -0,0 +1,107 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SymmetryBreakingTest {
+
+    @Test
+    public void interchangeableValuesShouldRetainOnlyOneUnusedValue() {
+        final ColoringCSP csp = new ColoringCSP();
+        final InterchangeableValues<String> valueOrdering = new InterchangeableValues<>();
+        final Assignment<String> initialAssignment = csp.initialAssignment();
+        final Variable<String> wa = variableOf(initialAssignment, "WA");
+
+        assertEquals(1, valueOrdering.orderedDomain(wa, initialAssignment, csp.constraints()).size());
+
+        final Assignment<String> assignment = initialAssignment.assign(wa, "red", csp.constraints());
+        final Variable<String> ts = variableOf(assignment, "TS");
+
+        assertEquals(2, valueOrdering.orderedDomain(ts, assignment, csp.constraints()).size());
+        assertTrue(valueOrdering.orderedDomain(ts, assignment, csp.constraints()).contains("red"));
+    }
+
+    @Test
+    public void dfsSolverShouldReportUnsatisfiableColoringCSP() {
+        assertFalse(new DFSSolver<String>().solve(new ColoringCSP("red", "green")).isPresent());
+        assertFalse(new DFSSolver<String>(new InterchangeableValues<>()).solve(new ColoringCSP("red", "green")).isPresent());
+    }
+
+    @Test
+    public void interchangeableValuesShouldExploreAtMostHalfTheStatesOfUnsatisfiableColoringCSP() {
+        final long statesWithoutSymmetryBreaking = exploredStates(new DFSSolver<>(), new CycleCSP(7, "red", "green"));
+        final long statesWithSymmetryBreaking = exploredStates(new DFSSolver<>(new InterchangeableValues<>()), new CycleCSP(7, "red", "green"));
+
+        assertTrue(statesWithSymmetryBreaking > 0);
+        // the first vertex is colored once instead of twice, which halves the search tree
+        assertTrue(statesWithSymmetryBreaking * 2 <= statesWithoutSymmetryBreaking);
+    }
+
+    @Test
+    public void interchangeableValuesShouldStillFindSolutionOfColoringCSP() {
+        final DFSSolver<String> solver = new DFSSolver<>(new InterchangeableValues<>());
+        final Optional<Assignment<String>> solution = solver.solve(new ColoringCSP());
+
+        assertTrue(solution.isPresent());
+        assertTrue(new ColoringCSP().isSatisfied(solution.get()));
+    }
+
+    @Test
+    public void lexLeaderShouldOrderInterchangeableVariables() {
+        final CSP<Integer> csp = new CSP<Integer>() {
+            @Override
+            protected Assignment<Integer> initialAssignment() {
+                final Map<VariableIdentity, Variable<Integer>> variables = new HashMap<>();
+                for (String name : Arrays.asList("A", "B", "C")) {
+                    variables.put(id(name), Variable.unassignedVariable(id(name), new HashSet<>(Arrays.asList(3, 2, 1))));
+                }
+                return Assignment.initialAssignment(variables);
+            }
+
+            @Override
+            protected Set<Constraint> constraints() {
+                final Set<Constraint> constraints = new HashSet<>();
+                constraints.add(AllDiff.on(id("A"), id("B"), id("C")));
+                constraints.addAll(LexLeader.chain(Arrays.asList(
+                        Arrays.asList(id("C")),
+                        Arrays.asList(id("B")),
+                        Arrays.asList(id("A")))));
+                return constraints;
+            }
+        };
+        final Optional<Assignment<Integer>> solution = new DFSSolver<Integer>().solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().valueOf(id("C")) == 1);
+        assertTrue(solution.get().valueOf(id("B")) == 2);
+        assertTrue(solution.get().valueOf(id("A")) == 3);
+    }
+
+    private static long exploredStates(final DFSSolver<String> solver, final CSP<String> csp) {
+        final AtomicLong states = new AtomicLong();
+        solver.addListener(assignment -> states.incrementAndGet());
+        assertFalse(solver.solve(csp).isPresent());
+        return states.get();
+    }
+
+    private static Variable<String> variableOf(final Assignment<String> assignment, final String name) {
+        return assignment
+                .unassignedVariables()
+                .stream()
+                .filter(variable -> variable.identity().equals(id(name)))
+                .findFirst()
+                .get();
+    }
+}
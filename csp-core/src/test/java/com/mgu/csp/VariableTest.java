@@ -0,0 +1,69 @@
+package com.mgu.csp;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VariableTest {
+
+    @Test
+    public void variablesWithEqualDomainsShouldShareTheirDomain() {
+        final Variable<Integer> a = Variable.unassignedVariable(id("A"), new HashSet<>(Arrays.asList(1, 2, 3)));
+        final Variable<Integer> b = Variable.unassignedVariable(id("B"), new HashSet<>(Arrays.asList(1, 2, 3)));
+
+        assertSame(a.domain(), b.domain());
+        assertSame(a.restrict(1).domain(), b.restrict(1).domain());
+        assertSame(a.restrict(1).restrict(2).domain(), b.restrict(2).restrict(1).domain());
+    }
+
+    @Test
+    public void restrictingTheSameVariableByTheSameValueShouldShareTheRestrictedDomain() {
+        final Variable<Integer> a = Variable.unassignedVariable(id("A"), new HashSet<>(Arrays.asList(1, 2, 3)));
+
+        assertSame(a.restrict(2).domain(), a.restrict(2).domain());
+        assertSame(a, a.restrict(4));
+        assertEquals(new HashSet<>(Arrays.asList(1, 3)), a.restrict(2).domain());
+    }
+
+    @Test
+    public void assignedVariablesShouldShareTheEmptyDomain() {
+        final Variable<Integer> a = Variable.unassignedVariable(id("A"), new HashSet<>(Arrays.asList(1, 2, 3)));
+
+        assertSame(a.assign(1).domain(), Variable.assignedVariable(id("B"), 2).domain());
+        assertTrue(a.assign(1).domain().isEmpty());
+    }
+
+    @Test
+    public void domainsShouldKeepTheirOwnOrderEvenIfAnEqualDomainHasBeenCreatedBefore() {
+        final Variable<Integer> a = Variable.unassignedVariable(id("A"), new LinkedHashSet<>(Arrays.asList(3, 1, 2)));
+        final Variable<Integer> b = Variable.unassignedVariable(id("B"), new LinkedHashSet<>(Arrays.asList(2, 3, 1)));
+
+        assertEquals(Arrays.asList(3, 1, 2), new ArrayList<>(a.domain()));
+        assertEquals(Arrays.asList(2, 3, 1), new ArrayList<>(b.domain()));
+        assertEquals(Arrays.asList(2, 1), new ArrayList<>(b.restrict(3).domain()));
+    }
+
+    @Test
+    public void restrictedDomainShouldBeReleasedOnceNoVariableUsesItAlthoughItsInitialDomainIsStillInUse() throws InterruptedException {
+        final Variable<Integer> a = Variable.unassignedVariable(id("A"), new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+        final WeakReference<Object> restrictedDomain = new WeakReference<>(a.restrict(4).domain());
+
+        for (int attempt = 0; attempt < 50 && restrictedDomain.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(restrictedDomain.get());
+        assertEquals(4, a.domain().size());
+    }
+}
@@ -0,0 +1,217 @@
+package com.mgu.csp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the course of a search as custom events to the Java Flight Recorder (JFR), so that slow solves can be
+ * diagnosed in production along with the rest of the recording. The tracer emits
+ *
+ * <ul>
+ *     <li>a {@code com.mgu.csp.Solve} event that spans the whole search and carries the number of nodes,
+ *     backtracks and restarts, the maximum depth and the time spent on forward checking,</li>
+ *     <li>a {@code com.mgu.csp.Restart} event whenever the search starts over,</li>
+ *     <li>a {@code com.mgu.csp.DepthMilestone} event whenever the search reaches a new maximum depth that is a
+ *     multiple of the milestone interval, and</li>
+ *     <li>a {@code com.mgu.csp.Propagation} event per constraint type at the end of the search that carries the
+ *     number of consistency checks, failed checks and pruned values as well as the time spent on checking.</li>
+ * </ul>
+ *
+ * Propagation statistics are aggregated while searching, since an event per consistency check would flood the
+ * recording. The events are subject to the settings of the recording, so they can be disabled there as well.
+ *
+ * This tracer requires the {@code jdk.jfr} API of Java 11. It therefore lives in the optional module
+ * {@code csp-jfr}, so that {@code csp-core} keeps running on Java 8. This class is not thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class FlightRecorderTracer implements SearchTracer {
+
+    private static final int DEFAULT_DEPTH_MILESTONE = 10;
+
+    private final int depthMilestone;
+
+    private final Map<Class<? extends Constraint>, PropagationEvent> propagation = new LinkedHashMap<>();
+
+    private SolveEvent solve;
+
+    /**
+     * Emits a depth milestone for every tenth level of the search tree.
+     */
+    public FlightRecorderTracer() {
+        this(DEFAULT_DEPTH_MILESTONE);
+    }
+
+    /**
+     * @param depthMilestone
+     *      a depth milestone is emitted whenever the maximum depth of the search reaches a multiple of this
+     *      number, must be positive
+     * @throws IllegalArgumentException
+     *      if {@code depthMilestone} is not positive
+     */
+    public FlightRecorderTracer(final int depthMilestone) {
+        if (depthMilestone < 1) {
+            throw new IllegalArgumentException("The depth milestone must be positive, but was " + depthMilestone + ".");
+        }
+        this.depthMilestone = depthMilestone;
+    }
+
+    @Override
+    public void solveStarted(final String solver) {
+        propagation.clear();
+        solve = new SolveEvent();
+        solve.solver = solver;
+        solve.begin();
+    }
+
+    @Override
+    public void branched(final int depth, final VariableIdentity variable, final Object value, final boolean consistent) {
+        solve.nodes++;
+        if (consistent && depth > solve.maximumDepth) {
+            solve.maximumDepth = depth;
+            if (depth % depthMilestone == 0) {
+                final DepthMilestoneEvent milestone = new DepthMilestoneEvent();
+                milestone.solver = solve.solver;
+                milestone.depth = depth;
+                milestone.nodes = solve.nodes;
+                milestone.commit();
+            }
+        }
+    }
+
+    @Override
+    public void backtracked(final int depth) {
+        solve.backtracks++;
+    }
+
+    @Override
+    public void restarted(final int iteration) {
+        solve.restarts++;
+        final RestartEvent restart = new RestartEvent();
+        restart.solver = solve.solver;
+        restart.iteration = iteration;
+        restart.nodes = solve.nodes;
+        restart.commit();
+    }
+
+    @Override
+    public void forwardChecked(final long nanos) {
+        solve.forwardCheckingTime += nanos;
+    }
+
+    @Override
+    public void propagated(final Class<? extends Constraint> constraintType, final long nanos, final int prunes, final boolean failed) {
+        final PropagationEvent event = propagation.computeIfAbsent(constraintType, type -> {
+            final PropagationEvent newEvent = new PropagationEvent();
+            newEvent.solver = solve.solver;
+            newEvent.constraintType = type.getName();
+            return newEvent;
+        });
+        event.checks++;
+        event.failures += failed ? 1 : 0;
+        event.prunes += prunes;
+        event.checkTime += nanos;
+    }
+
+    @Override
+    public void solveEnded(final boolean solved) {
+        propagation.values().forEach(PropagationEvent::commit);
+        propagation.clear();
+        solve.solved = solved;
+        solve.commit();
+    }
+
+    @Name("com.mgu.csp.Solve")
+    @Label("Solve")
+    @Category("CSP")
+    @Description("A search for a solution of a CSP")
+    static class SolveEvent extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Solved")
+        boolean solved;
+
+        @Label("Nodes")
+        long nodes;
+
+        @Label("Backtracks")
+        long backtracks;
+
+        @Label("Restarts")
+        int restarts;
+
+        @Label("Maximum Depth")
+        int maximumDepth;
+
+        @Label("Forward Checking Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long forwardCheckingTime;
+    }
+
+    @Name("com.mgu.csp.Restart")
+    @Label("Restart")
+    @Category("CSP")
+    @Description("The search starts over from the initial assignment")
+    static class RestartEvent extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Iteration")
+        int iteration;
+
+        @Label("Nodes")
+        long nodes;
+    }
+
+    @Name("com.mgu.csp.DepthMilestone")
+    @Label("Depth Milestone")
+    @Category("CSP")
+    @Description("The search reached a new maximum depth")
+    static class DepthMilestoneEvent extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("Nodes")
+        long nodes;
+    }
+
+    @Name("com.mgu.csp.Propagation")
+    @Label("Propagation")
+    @Category("CSP")
+    @Description("Consistency checks of all constraints of a type during a search")
+    static class PropagationEvent extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Constraint Type")
+        String constraintType;
+
+        @Label("Checks")
+        long checks;
+
+        @Label("Failures")
+        long failures;
+
+        @Label("Prunes")
+        long prunes;
+
+        @Label("Check Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long checkTime;
+    }
+}
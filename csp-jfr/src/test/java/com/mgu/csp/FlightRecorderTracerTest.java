@@ -0,0 +1,76 @@
+package com.mgu.csp;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.mgu.csp.VariableIdentity.id;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderTracerTest {
+
+    @Test
+    public void flightRecorderTracerShouldEmitSolveAndPropagationEvents() throws Exception {
+        final Path file = Files.createTempFile("csp", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.mgu.csp.Solve");
+            recording.enable("com.mgu.csp.Propagation");
+            recording.start();
+            final DFSSolver<String> solver = new DFSSolver<>(new MinimumRemainingValue<>());
+            solver.trace(new FlightRecorderTracer());
+            solver.solve(new TriangleCSP());
+            recording.stop();
+            recording.dump(file);
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            final RecordedEvent solve = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.mgu.csp.Solve"))
+                    .findFirst()
+                    .get();
+            final List<String> constraintTypes = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.mgu.csp.Propagation"))
+                    .map(event -> event.getString("constraintType"))
+                    .collect(Collectors.toList());
+
+            assertTrue(solve.getBoolean("solved"));
+            assertEquals(3, solve.getInt("maximumDepth"));
+            assertEquals(1, constraintTypes.size());
+            assertEquals(AllDiff.class.getName(), constraintTypes.get(0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Colors the three corners of a triangle with three colors, such that adjacent corners differ.
+     */
+    private static class TriangleCSP extends CSP<String> {
+
+        @Override
+        protected Assignment<String> initialAssignment() {
+            final Map<VariableIdentity, Variable<String>> variables = new HashMap<>();
+            for (String name : Arrays.asList("A", "B", "C")) {
+                variables.put(id(name), Variable.unassignedVariable(id(name), new HashSet<>(Arrays.asList("red", "green", "blue"))));
+            }
+            return Assignment.initialAssignment(variables);
+        }
+
+        @Override
+        protected Set<Constraint> constraints() {
+            return Collections.singleton(AllDiff.on(id("A"), id("B"), id("C")));
+        }
+    }
+}
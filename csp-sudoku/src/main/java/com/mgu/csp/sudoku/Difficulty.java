@@ -0,0 +1,33 @@
+package com.mgu.csp.sudoku;
+
+import com.mgu.csp.SolutionCount;
+
+/**
+ * Grades a Sudoku puzzle by the effort that proving its unique solution takes. A puzzle is {@link #EASY} if
+ * forward checking alone solves it, i.e. if every empty cell is eventually reduced to a single candidate without
+ * guessing. Otherwise, the number of decisions that the search takes to find the solution and to rule out a second
+ * one tells {@link #MEDIUM} from {@link #HARD} puzzles.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public enum Difficulty {
+
+    EASY,
+    MEDIUM,
+    HARD;
+
+    private static final long MAXIMUM_DECISIONS_OF_MEDIUM_PUZZLES = 10L;
+
+    /**
+     * @param count
+     *      the outcome of counting the solutions of a puzzle up to two solutions
+     * @return
+     *      the difficulty of the puzzle
+     */
+    public static Difficulty of(final SolutionCount count) {
+        if (count.decisions() == 0L) {
+            return EASY;
+        }
+        return count.decisions() <= MAXIMUM_DECISIONS_OF_MEDIUM_PUZZLES ? MEDIUM : HARD;
+    }
+}
@@ -1,8 +1,10 @@
 package com.mgu.csp.sudoku;
 
 import com.mgu.csp.Assignment;
+import com.mgu.csp.AsyncListener;
 import com.mgu.csp.DFSSolver;
 import com.mgu.csp.MinimumRemainingValue;
+import com.mgu.csp.SearchTracer;
 
 import java.util.Optional;
 
@@ -20,12 +22,17 @@ public class SudokuApp {
                     "005010300";
 
     public static void main(String[] args) {
-        long start = System.nanoTime();
         DFSSolver<Integer> solver = new DFSSolver<>(new MinimumRemainingValue<>());
-        solver.addListener(state -> PrettyPrinter.printBoard(state));
+        AsyncListener<Integer> printer = AsyncListener.latestOnly(state -> PrettyPrinter.printBoard(state));
+        solver.addListener(printer);
+        if (Boolean.getBoolean("csp.jfr")) {
+            solver.trace(flightRecorderTracer());
+        }
+        long start = System.nanoTime();
         Optional<Assignment<Integer>> completeAssignment = solver.solve(new SudokuCSP(TEST));
         long end = System.nanoTime();
         long duration = (end - start) / 1000000;
+        printer.close();
 
         completeAssignment.orElseThrow(() -> new RuntimeException("Found no solution."));
         completeAssignment.ifPresent(assignment -> {
@@ -34,4 +41,15 @@ public class SudokuApp {
             PrettyPrinter.printBoard(assignment);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * The tracer lives in module csp-jfr, which requires Java 11, so it is looked up at runtime rather than linked.
+     */
+    private static SearchTracer flightRecorderTracer() {
+        try {
+            return (SearchTracer) Class.forName("com.mgu.csp.FlightRecorderTracer").getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Tracing to the Java Flight Recorder requires module csp-jfr on the classpath.", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mgu.csp.sudoku;
+
+import com.mgu.csp.IntSolver;
+import com.mgu.csp.SolutionCount;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates Sudoku puzzles that have a unique solution and a given {@link Difficulty}. The generator starts from a
+ * random solution: it fills the three grids on the main diagonal, which do not constrain each other, with random
+ * permutations and completes them using an {@link IntSolver}. Afterwards, it empties the cells in random order,
+ * keeping each cell empty as long as the puzzle still has a unique solution and is not harder than requested.
+ * Uniqueness is checked by counting solutions up to two only, which is the same effort that grading the puzzle
+ * takes (cf. {@link Difficulty#of}). A puzzle that ends up easier than requested is discarded.
+ *
+ * Generating many puzzles runs in parallel on the common fork-join pool. Every puzzle is generated from a seed of
+ * its own that is split off the seed of the generator, so the generated puzzles do not depend on the number of
+ * threads.
+ *
+ * This class is thread-safe.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public class SudokuGenerator {
+
+    private final IntSolver solver = new IntSolver();
+
+    private final SplittableRandom seeds;
+
+    public SudokuGenerator() {
+        this(new Random().nextLong());
+    }
+
+    /**
+     * @param seed
+     *      seed of the sequence of random numbers that the generated puzzles are derived from, so that two
+     *      generators with the same seed generate the same puzzles
+     */
+    public SudokuGenerator(final long seed) {
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * @param numberOfPuzzles
+     *      number of puzzles to generate
+     * @param difficulty
+     *      the difficulty of all generated puzzles
+     * @return
+     *      the generated puzzles
+     */
+    public List<SudokuPuzzle> generate(final int numberOfPuzzles, final Difficulty difficulty) {
+        final SplittableRandom[] randomOfPuzzle = new SplittableRandom[numberOfPuzzles];
+        synchronized (seeds) {
+            for (int puzzle = 0; puzzle < numberOfPuzzles; puzzle++) {
+                randomOfPuzzle[puzzle] = seeds.split();
+            }
+        }
+        return IntStream
+                .range(0, numberOfPuzzles)
+                .parallel()
+                .mapToObj(puzzle -> generate(randomOfPuzzle[puzzle], difficulty))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param difficulty
+     *      the difficulty of the generated puzzle
+     * @return
+     *      a single generated puzzle
+     */
+    public SudokuPuzzle generate(final Difficulty difficulty) {
+        return generate(1, difficulty).get(0);
+    }
+
+    private SudokuPuzzle generate(final SplittableRandom random, final Difficulty difficulty) {
+        while (true) {
+            final int[] solution = randomSolution(random);
+            final int[] givens = solution.clone();
+            SolutionCount count = solver.count(new SudokuModel(givens), 2);
+            for (int cell : shuffled(random, SudokuModel.CELLS)) {
+                final int value = givens[cell];
+                givens[cell] = 0;
+                final SolutionCount reduced = solver.count(new SudokuModel(givens), 2);
+                if (reduced.isUnique() && Difficulty.of(reduced).compareTo(difficulty) <= 0) {
+                    count = reduced;
+                } else {
+                    givens[cell] = value;
+                }
+            }
+            if (Difficulty.of(count) == difficulty) {
+                return new SudokuPuzzle(givens, solution, difficulty, count.decisions());
+            }
+        }
+    }
+
+    private int[] randomSolution(final SplittableRandom random) {
+        final int[] cells = new int[SudokuModel.CELLS];
+        for (int grid = 0; grid < 3; grid++) {
+            final int[] values = shuffled(random, 9);
+            for (int position = 0; position < 9; position++) {
+                cells[9 * (3 * grid + position / 3) + 3 * grid + position % 3] = values[position] + 1;
+            }
+        }
+        return solver
+                .solve(new SudokuModel(cells))
+                .orElseThrow(() -> new IllegalStateException("Independent grids on the diagonal always have a solution."));
+    }
+
+    private static int[] shuffled(final SplittableRandom random, final int length) {
+        final int[] permutation = new int[length];
+        for (int position = 0; position < length; position++) {
+            permutation[position] = position;
+        }
+        for (int position = length - 1; position > 0; position--) {
+            final int other = random.nextInt(position + 1);
+            final int swap = permutation[position];
+            permutation[position] = permutation[other];
+            permutation[other] = swap;
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mgu.csp.sudoku;
+
+import com.mgu.csp.IntAllDiff;
+import com.mgu.csp.IntCSP;
+import com.mgu.csp.IntConstraint;
+import com.mgu.csp.IntVariable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.mgu.csp.sudoku.IdGenerator.identityOfVariableAt;
+
+/**
+ * Primitive counterpart of {@link SudokuCSP}: the same 81 variables and 27 all-different constraints on rows,
+ * columns and grids, stated as an {@link IntCSP}. Cells are indexed row by row, so the variable of the cell in
+ * row r and column c is at position {@code 9 * r + c} and carries the name of its {@code SudokuCSP} counterpart.
+ * Since a generator builds many models, the variables of all cells - empty or given - are created once and shared
+ * by all models.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+class SudokuModel extends IntCSP {
+
+    static final int CELLS = 81;
+
+    private static final List<String> NAMES = names();
+
+    private static final List<IntConstraint> CONSTRAINTS = allDiffs();
+
+    private static final IntVariable[] EMPTY_CELLS = emptyCells();
+
+    private static final IntVariable[][] GIVEN_CELLS = givenCells();
+
+    private final int[] cells;
+
+    /**
+     * @param cells
+     *      the values of the 81 cells row by row, where {@code 0} denotes an empty cell
+     */
+    SudokuModel(final int[] cells) {
+        this.cells = cells;
+    }
+
+    @Override
+    protected List<IntVariable> variables() {
+        return new AbstractList<IntVariable>() {
+            @Override
+            public IntVariable get(final int cell) {
+                return cells[cell] == 0 ? EMPTY_CELLS[cell] : GIVEN_CELLS[cell][cells[cell] - 1];
+            }
+
+            @Override
+            public int size() {
+                return CELLS;
+            }
+        };
+    }
+
+    @Override
+    protected List<IntConstraint> constraints() {
+        return CONSTRAINTS;
+    }
+
+    private static List<String> names() {
+        final List<String> names = new ArrayList<>(CELLS);
+        for (int cell = 0; cell < CELLS; cell++) {
+            names.add(identityOfVariableAt(cell / 9, cell % 9).toString());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private static IntVariable[] emptyCells() {
+        final IntVariable[] variables = new IntVariable[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            variables[cell] = IntVariable.range(NAMES.get(cell), 1, 9);
+        }
+        return variables;
+    }
+
+    private static IntVariable[][] givenCells() {
+        final IntVariable[][] variables = new IntVariable[CELLS][9];
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int value = 1; value <= 9; value++) {
+                variables[cell][value - 1] = IntVariable.fixed(NAMES.get(cell), value);
+            }
+        }
+        return variables;
+    }
+
+    private static List<IntConstraint> allDiffs() {
+        final List<IntConstraint> constraints = new ArrayList<>();
+        for (int line = 0; line < 9; line++) {
+            final int[] row = new int[9];
+            final int[] column = new int[9];
+            final int[] grid = new int[9];
+            for (int position = 0; position < 9; position++) {
+                row[position] = 9 * line + position;
+                column[position] = 9 * position + line;
+                grid[position] = 9 * (3 * (line / 3) + position / 3) + 3 * (line % 3) + position % 3;
+            }
+            constraints.add(new IntAllDiff(row));
+            constraints.add(new IntAllDiff(column));
+            constraints.add(new IntAllDiff(grid));
+        }
+        return Collections.unmodifiableList(constraints);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mgu.csp.sudoku;
+
+/**
+ * A generated Sudoku puzzle along with its unique solution and its {@link Difficulty}. Its string representation
+ * is the line-delimited format that {@link SudokuCSP} parses, with {@code 0} for empty cells.
+ *
+ * This class is immutable.
+ *
+ * @author Markus Günther (markus.guenther@gmail.com)
+ */
+public final class SudokuPuzzle {
+
+    private final int[] givens;
+
+    private final int[] solution;
+
+    private final Difficulty difficulty;
+
+    private final long decisions;
+
+    SudokuPuzzle(final int[] givens, final int[] solution, final Difficulty difficulty, final long decisions) {
+        this.givens = givens.clone();
+        this.solution = solution.clone();
+        this.difficulty = difficulty;
+        this.decisions = decisions;
+    }
+
+    /**
+     * @return
+     *      the values of the 81 cells row by row, where {@code 0} denotes an empty cell
+     */
+    public int[] givens() {
+        return givens.clone();
+    }
+
+    /**
+     * @return
+     *      the values of the 81 cells of the unique solution row by row
+     */
+    public int[] solution() {
+        return solution.clone();
+    }
+
+    public Difficulty difficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return
+     *      number of decisions that the search took to find the solution and to rule out a second one
+     */
+    public long decisions() {
+        return decisions;
+    }
+
+    /**
+     * @return
+     *      number of cells that are not empty
+     */
+    public int numberOfGivens() {
+        int numberOfGivens = 0;
+        for (int value : givens) {
+            if (value != 0) {
+                numberOfGivens++;
+            }
+        }
+        return numberOfGivens;
+    }
+
+    public SudokuCSP toCSP() {
+        return new SudokuCSP(toString());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int cell = 0; cell < SudokuModel.CELLS; cell++) {
+            if (cell > 0 && cell % 9 == 0) {
+                sb.append("\n");
+            }
+            sb.append(givens[cell]);
+        }
+        return sb.toString();
+    }
+}
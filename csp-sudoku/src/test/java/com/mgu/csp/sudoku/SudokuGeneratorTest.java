@@ -0,0 +1,69 @@
+package com.mgu.csp.sudoku;
+
+import com.mgu.csp.Assignment;
+import com.mgu.csp.DFSSolver;
+import com.mgu.csp.IntSolver;
+import com.mgu.csp.MinimumRemainingValue;
+import com.mgu.csp.SolutionCount;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.mgu.csp.sudoku.IdGenerator.identityOfVariableAt;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SudokuGeneratorTest {
+
+    @Test
+    public void generatedPuzzlesShouldHaveUniqueSolutionAndRequestedDifficulty() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            final List<SudokuPuzzle> puzzles = new SudokuGenerator(42L).generate(8, difficulty);
+
+            assertEquals(8, puzzles.size());
+            for (SudokuPuzzle puzzle : puzzles) {
+                final SolutionCount count = new IntSolver().count(new SudokuModel(puzzle.givens()), 2);
+                assertTrue(count.isUnique());
+                assertArrayEquals(puzzle.solution(), count.firstSolution().get());
+                assertEquals(difficulty, puzzle.difficulty());
+                assertEquals(difficulty, Difficulty.of(count));
+            }
+        }
+    }
+
+    @Test
+    public void givensOfGeneratedPuzzleShouldAgreeWithItsSolution() {
+        final SudokuPuzzle puzzle = new SudokuGenerator(7L).generate(Difficulty.MEDIUM);
+        final int[] givens = puzzle.givens();
+        final int[] solution = puzzle.solution();
+
+        for (int cell = 0; cell < givens.length; cell++) {
+            assertTrue(givens[cell] == 0 || givens[cell] == solution[cell]);
+        }
+        assertTrue(puzzle.numberOfGivens() < givens.length);
+    }
+
+    @Test
+    public void generatedPuzzleShouldBeSolvableAsSudokuCSP() {
+        final SudokuPuzzle puzzle = new SudokuGenerator(3L).generate(Difficulty.HARD);
+
+        final Optional<Assignment<Integer>> solution = new DFSSolver<Integer>(new MinimumRemainingValue<>()).solve(puzzle.toCSP());
+
+        assertTrue(solution.isPresent());
+        for (int cell = 0; cell < 81; cell++) {
+            assertEquals(puzzle.solution()[cell], (int) solution.get().valueOf(identityOfVariableAt(cell / 9, cell % 9)));
+        }
+    }
+
+    @Test
+    public void generatorsWithSameSeedShouldGenerateSamePuzzles() {
+        final List<SudokuPuzzle> puzzles = new SudokuGenerator(11L).generate(4, Difficulty.EASY);
+        final List<SudokuPuzzle> samePuzzles = new SudokuGenerator(11L).generate(4, Difficulty.EASY);
+
+        for (int puzzle = 0; puzzle < puzzles.size(); puzzle++) {
+            assertEquals(puzzles.get(puzzle).toString(), samePuzzles.get(puzzle).toString());
+        }
+    }
+}